@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decompressing a {@link CompressedFrame} just in time, compared to copying the same frame
+ * kept uncompressed. Flat UI art compresses well, noise is close to the worst case for the run-length code.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+    @Param({"ui", "noise"})
+    public String content;
+
+    private Rgb565Image source;
+    private CompressedFrame frame;
+
+    private Rgb565Image dest;
+
+    /**
+     * Destination twice as wide as the frame, to measure decoding into a region of a larger image.
+     */
+    private Rgb565Image stridedDest;
+
+    @Setup
+    public void setUp() {
+        final BufferedImage image = "ui".equals(content)
+                                    ? createUi()
+                                    : PixelConverterBenchmark.createImage(BufferedImage.TYPE_INT_RGB);
+
+        source = Rgb565Image.fromImage(image);
+        frame = CompressedFrame.encode(source);
+
+        dest = Rgb565Image.allocate(source.getWidth(), source.getHeight());
+        stridedDest = Rgb565Image.allocate(source.getWidth() * 2, source.getHeight())
+                                 .getRegion(0, 0, source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * Draws flat panels and text, roughly what a touchpad UI looks like.
+     */
+    private static BufferedImage createUi() {
+        final BufferedImage image = new BufferedImage(800, 480, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(new Color(30, 30, 36));
+            graphics.fillRect(0, 0, 800, 480);
+            graphics.setColor(new Color(60, 110, 180));
+            graphics.fillRect(0, 0, 800, 64);
+            graphics.setColor(new Color(48, 48, 56));
+            for (int i = 0; i < 4; i++)
+                graphics.fillRoundRect(24 + i * 194, 96, 170, 340, 16, 16);
+
+            graphics.setColor(Color.WHITE);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 28));
+            graphics.drawString("Now playing", 24, 44);
+            for (int i = 0; i < 4; i++)
+                graphics.drawString("Item " + i, 44 + i * 194, 140);
+        } finally {
+            graphics.dispose();
+        }
+
+        return image;
+    }
+
+    @Benchmark
+    public Rgb565Image decode() {
+        frame.decode(dest);
+        return dest;
+    }
+
+    @Benchmark
+    public Rgb565Image decodeStrided() {
+        frame.decode(stridedDest);
+        return stridedDest;
+    }
+
+    /**
+     * Copies the frame from an uncompressed image, the cost of keeping it uncompressed instead.
+     */
+    @Benchmark
+    public Rgb565Image copyUncompressed() {
+        final ShortBuffer from = source.getPixels();
+        final ShortBuffer to = dest.getPixels();
+        to.put(from);
+        return dest;
+    }
+}
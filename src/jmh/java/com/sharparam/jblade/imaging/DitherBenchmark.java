@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting a touchpad frame to RGB565 with each dither mode, to pick a mode that fits the frame budget.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DitherBenchmark {
+    @Param({"NONE", "ORDERED", "ERROR_DIFFUSION"})
+    public DitherMode mode;
+
+    @Param({"INT_RGB", "INT_ARGB"})
+    public String type;
+
+    private BufferedImage image;
+    private ShortBuffer dest;
+
+    @Setup
+    public void setUp() throws Exception {
+        image = PixelConverterBenchmark.createImage(BufferedImage.class.getField("TYPE_" + type).getInt(null));
+        dest = ByteBuffer.allocateDirect(image.getWidth() * image.getHeight() * 2)
+                         .order(ByteOrder.nativeOrder())
+                         .asShortBuffer();
+    }
+
+    @Benchmark
+    public ShortBuffer convert() {
+        PixelConverter.convert(image, 0, 0, image.getWidth(), image.getHeight(), dest, 0, image.getWidth(), mode);
+        return dest;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of a touchpad sized image to RGB565 for every image type, through the raster fast paths
+ * of {@link PixelConverter} and through one getRGB call for the whole image, which is how every image was
+ * converted before PixelConverter was added.
+ * TYPE_INT_BGR has no fast path, so its convert case measures the getRGB fallback of PixelConverter.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PixelConverterBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 480;
+
+    @Param({"USHORT_565_RGB", "INT_ARGB", "INT_RGB", "3BYTE_BGR", "4BYTE_ABGR", "BYTE_GRAY", "INT_BGR"})
+    public String type;
+
+    private BufferedImage image;
+    private ShortBuffer dest;
+
+    @Setup
+    public void setUp() throws Exception {
+        final int imageType = BufferedImage.class.getField("TYPE_" + type).getInt(null);
+        image = createImage(imageType);
+        dest = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    /**
+     * Fills an image with noise over a gradient, so no conversion can get away with repeating one pixel.
+     */
+    static BufferedImage createImage(final int type) {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, new Color(20, 20, 60, 255), WIDTH, HEIGHT,
+                                                new Color(220, 120, 40, 160)));
+            graphics.fillRect(0, 0, WIDTH, HEIGHT);
+
+            final Random random = new Random(42);
+            for (int i = 0; i < 2000; i++) {
+                graphics.setColor(new Color(random.nextInt(), true));
+                graphics.fillRect(random.nextInt(WIDTH), random.nextInt(HEIGHT), 8, 8);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        return image;
+    }
+
+    @Benchmark
+    public ShortBuffer convert() {
+        PixelConverter.convert(image, 0, 0, WIDTH, HEIGHT, dest, 0, WIDTH);
+        return dest;
+    }
+
+    @Benchmark
+    public ShortBuffer getRgb() {
+        final int[] data = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+        for (int i = 0; i < data.length; i++)
+            dest.put(i, PixelConverter.toRgb565(data[i]));
+
+        return dest;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.imaging.PixelConverter;
+import com.sharparam.jblade.razer.exceptions.RazerNativeException;
+import com.sun.jna.Memory;
+import com.sun.jna.platform.win32.WinDef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full touchpad frame upload through RzSBRenderBuffer, before and after render targets kept a reusable buffer.
+ * Needs the SwitchBlade SDK and a connected device, so the jmh profile excludes it unless jmh.args is overridden,
+ * e.g. {@code mvn -Pjmh test-compile exec:exec -Djmh.args=DeviceUpload}.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceUploadBenchmark {
+    private static final int SIZE = RazerAPI.TOUCHPAD_IMAGE_DATA_SIZE;
+
+    private RazerAPI razerAPI;
+    private BufferedImage image;
+
+    private Memory frameBuffer;
+    private ShortBuffer framePixels;
+    private RazerAPI.BufferParams.ByValue bufferParams;
+
+    @Setup(Level.Trial)
+    public void setUp() throws RazerNativeException {
+        razerAPI = RazerAPI.INSTANCE;
+        final RazerAPI.Hresult result = razerAPI.RzSBStart();
+        if (result.isError())
+            throw new RazerNativeException("RzSBStart", result);
+
+        image = FrameUploadBenchmark.createFrame(BufferedImage.TYPE_INT_RGB);
+
+        frameBuffer = new Memory(SIZE);
+        framePixels = frameBuffer.getByteBuffer(0, SIZE).order(ByteOrder.nativeOrder()).asShortBuffer();
+        bufferParams = createParams(frameBuffer);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        razerAPI.RzSBStop();
+    }
+
+    private static RazerAPI.BufferParams.ByValue createParams(final Memory buffer) {
+        final RazerAPI.BufferParams.ByValue params = new RazerAPI.BufferParams.ByValue();
+        params.pixelType = RazerAPI.PixelType.RGB565;
+        params.dataSize = new WinDef.UINT(SIZE);
+        params.ptrData = buffer;
+        return params;
+    }
+
+    @Benchmark
+    public RazerAPI.Hresult allocatePerFrame() {
+        final int[] data = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        final Memory buffer = new Memory(SIZE);
+        for (int i = 0; i < data.length; i++)
+            buffer.setShort(i * 2L, PixelConverter.toRgb565(data[i]));
+        return razerAPI.RzSBRenderBuffer(RazerAPI.TargetDisplay.WIDGET, createParams(buffer));
+    }
+
+    @Benchmark
+    public RazerAPI.Hresult reuseFrameBuffer() {
+        PixelConverter.convert(image, 0, 0, image.getWidth(), image.getHeight(), framePixels, 0, image.getWidth());
+        return razerAPI.RzSBRenderBuffer(RazerAPI.TargetDisplay.WIDGET, bufferParams);
+    }
+}
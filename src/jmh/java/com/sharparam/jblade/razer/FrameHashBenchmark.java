@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.imaging.PixelConverter;
+import com.sun.jna.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the content hash render targets compute on every frame to skip uploading frames
+ * that are already on the device, alone and on top of converting the frame.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameHashBenchmark {
+    private BufferedImage image;
+
+    private Memory frameBuffer;
+    private ByteBuffer frameView;
+    private ShortBuffer framePixels;
+
+    @Setup
+    public void setUp() {
+        image = FrameUploadBenchmark.createFrame(BufferedImage.TYPE_INT_RGB);
+
+        final int size = RazerAPI.TOUCHPAD_IMAGE_DATA_SIZE;
+        frameBuffer = new Memory(size);
+        frameView = frameBuffer.getByteBuffer(0, size).order(ByteOrder.nativeOrder());
+        framePixels = frameView.asShortBuffer();
+        PixelConverter.convert(image, framePixels);
+    }
+
+    @Benchmark
+    public long hash() {
+        return RenderTarget.hash(frameView);
+    }
+
+    @Benchmark
+    public long convertAndHash() {
+        PixelConverter.convert(image, 0, 0, image.getWidth(), image.getHeight(), framePixels, 0, image.getWidth());
+        return RenderTarget.hash(frameView);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.imaging.PixelConverter;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of preparing a touchpad frame for RzSBRenderBuffer, everything up to the native call itself.
+ * {@link #allocatePerFrame()} is how frames were prepared before render targets kept a reusable buffer:
+ * a getRGB copy of the whole image and a new native buffer for every frame.
+ * See {@link DeviceUploadBenchmark} for the native call, which needs the device,
+ * and {@link FrameHashBenchmark} for the hash that decides whether the call is made at all.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameUploadBenchmark {
+    private BufferedImage image;
+
+    private Memory frameBuffer;
+    private ShortBuffer framePixels;
+
+    @Setup
+    public void setUp() {
+        image = createFrame(BufferedImage.TYPE_INT_RGB);
+
+        final int size = RazerAPI.TOUCHPAD_WIDTH * RazerAPI.TOUCHPAD_HEIGHT * 2;
+        frameBuffer = new Memory(size);
+        framePixels = frameBuffer.getByteBuffer(0, size).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    /**
+     * Draws a gradient with some text over it, roughly what a touchpad UI looks like.
+     */
+    static BufferedImage createFrame(final int type) {
+        final BufferedImage frame = new BufferedImage(RazerAPI.TOUCHPAD_WIDTH, RazerAPI.TOUCHPAD_HEIGHT, type);
+        final Graphics2D graphics = frame.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(0, 0, Color.DARK_GRAY, frame.getWidth(), frame.getHeight(),
+                                                new Color(40, 90, 160)));
+            graphics.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+            graphics.setColor(Color.WHITE);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 48));
+            graphics.drawString("JBlade 12:34", 40, 240);
+        } finally {
+            graphics.dispose();
+        }
+
+        return frame;
+    }
+
+    @Benchmark
+    public Pointer allocatePerFrame() {
+        final int[] data = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        final Memory buffer = new Memory(data.length * 2);
+        for (int i = 0; i < data.length; i++)
+            buffer.setShort(i * 2L, PixelConverter.toRgb565(data[i]));
+        return buffer;
+    }
+
+    @Benchmark
+    public ShortBuffer convertIntoFrameBuffer() {
+        PixelConverter.convert(image, 0, 0, image.getWidth(), image.getHeight(), framePixels, 0, image.getWidth());
+        return framePixels;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sequence of frames with a delay for each, decoded up front into a single off-heap RGB565 buffer.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class Animation {
+    /**
+     * Delay used for GIF frames that don't specify one, browsers use the same value.
+     */
+    private static final int DEFAULT_GIF_DELAY = 100;
+
+    private final int width;
+    private final int height;
+    private final Rgb565Image[] frames;
+    private final int[] delays;
+
+    /**
+     * Start time of each frame, in milliseconds from the start of the animation.
+     */
+    private final long[] frameStarts;
+    private final long duration;
+
+    /**
+     * Creates an animation from a list of images, converting them to RGB565.
+     * @param images The frames of the animation, all of the same size.
+     * @param delays Time to show each frame, in milliseconds.
+     */
+    @APIComponent
+    public Animation(final List<BufferedImage> images, final int[] delays) {
+        this(getFirstFrame(images, delays).getWidth(), images.get(0).getHeight(),
+             allocateRing(images.get(0).getWidth(), images.get(0).getHeight(), images.size()), delays);
+
+        final int frameSize = width * height;
+        final ShortBuffer ring = frames[0].getPixels();
+
+        for (int i = 0; i < frames.length; i++) {
+            final BufferedImage image = images.get(i);
+            if (image.getWidth() != width || image.getHeight() != height)
+                throw new IllegalArgumentException("All frames must have the same size");
+
+            PixelConverter.convert(image, 0, 0, width, height, ring, i * frameSize, width);
+        }
+    }
+
+    /**
+     * Creates an animation over frames already converted into a ring buffer, one after another.
+     */
+    private Animation(final int width, final int height, final ShortBuffer ring, final int[] delays) {
+        this.width = width;
+        this.height = height;
+
+        final int frameSize = width * height;
+
+        frames = new Rgb565Image[delays.length];
+        this.delays = delays.clone();
+        frameStarts = new long[delays.length];
+
+        long time = 0;
+
+        for (int i = 0; i < frames.length; i++) {
+            if (delays[i] <= 0)
+                throw new IllegalArgumentException("Frame delays must be positive");
+
+            final ShortBuffer frame = ring.duplicate();
+            frame.position(i * frameSize);
+            frames[i] = new Rgb565Image(width, height, frame);
+
+            frameStarts[i] = time;
+            time += delays[i];
+        }
+
+        duration = time;
+    }
+
+    private static BufferedImage getFirstFrame(final List<BufferedImage> images, final int[] delays) {
+        if (images.isEmpty())
+            throw new IllegalArgumentException("An animation needs at least one frame");
+
+        if (images.size() != delays.length)
+            throw new IllegalArgumentException("There must be exactly one delay per frame");
+
+        return images.get(0);
+    }
+
+    /**
+     * Allocates the off-heap buffer holding all frames of an animation.
+     * @throws IllegalArgumentException If the frames don't fit in one buffer.
+     */
+    private static ShortBuffer allocateRing(final int width, final int height, final int count) {
+        final long size = (long) width * height * count * 2;
+        if (width <= 0 || height <= 0 || size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("%d frames of %dx%d don't fit in one buffer",
+                                                             count, width, height));
+
+        return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    /**
+     * Loads an animated GIF.
+     * Frames are composited according to their position and disposal method before being converted.
+     * @param path Path to the GIF file.
+     * @return The loaded animation.
+     * @throws IOException If the file could not be read or is not a GIF.
+     */
+    @APIComponent
+    public static Animation load(final String path) throws IOException {
+        final ImageInputStream input = ImageIO.createImageInputStream(new File(path));
+        if (input == null)
+            throw new IOException("Could not open " + path);
+
+        try {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext())
+                throw new IOException("Unsupported image format: " + path);
+
+            final ImageReader reader = readers.next();
+            try {
+                if (!"gif".equalsIgnoreCase(reader.getFormatName()))
+                    throw new IOException(path + " is not a GIF");
+
+                reader.setInput(input);
+                return readGif(reader);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Decodes the frames of a GIF, converting each composited frame into the ring as soon as it is decoded,
+     * so only the canvas and at most one saved copy of it are kept on the heap.
+     */
+    private static Animation readGif(final ImageReader reader) throws IOException {
+        final int count = reader.getNumImages(true);
+        final int[] delays = new int[count];
+
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+
+        final IIOMetadata streamMetadata = reader.getStreamMetadata();
+        if (streamMetadata != null) {
+            final Node screen = findNode(streamMetadata.getAsTree(streamMetadata.getNativeMetadataFormatName()),
+                                         "LogicalScreenDescriptor");
+            if (screen != null) {
+                width = Math.max(width, getIntAttribute(screen, "logicalScreenWidth", 0));
+                height = Math.max(height, getIntAttribute(screen, "logicalScreenHeight", 0));
+            }
+        }
+
+        final ShortBuffer ring;
+        try {
+            ring = allocateRing(width, height, count);
+        } catch (final IllegalArgumentException ex) {
+            throw new IOException("GIF is too large to decode: " + ex.getMessage());
+        }
+
+        final int frameSize = width * height;
+        final BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = canvas.createGraphics();
+        BufferedImage saved = null;
+
+        try {
+            for (int i = 0; i < count; i++) {
+                final BufferedImage image = reader.read(i);
+                final IIOMetadata metadata = reader.getImageMetadata(i);
+                final Node root = metadata.getAsTree(metadata.getNativeMetadataFormatName());
+
+                final Node descriptor = findNode(root, "ImageDescriptor");
+                final int x = descriptor == null ? 0 : getIntAttribute(descriptor, "imageLeftPosition", 0);
+                final int y = descriptor == null ? 0 : getIntAttribute(descriptor, "imageTopPosition", 0);
+
+                final Node control = findNode(root, "GraphicControlExtension");
+                final int delay = control == null ? 0 : getIntAttribute(control, "delayTime", 0) * 10;
+                final String disposal = control == null ? "none" : getAttribute(control, "disposalMethod", "none");
+
+                final boolean restore = "restoreToPrevious".equals(disposal);
+                if (restore) {
+                    if (saved == null)
+                        saved = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                    canvas.copyData(saved.getRaster());
+                }
+
+                graphics.drawImage(image, x, y, null);
+
+                PixelConverter.convert(canvas, 0, 0, width, height, ring, i * frameSize, width);
+                delays[i] = delay > 0 ? delay : DEFAULT_GIF_DELAY;
+
+                if ("restoreToBackgroundColor".equals(disposal)) {
+                    graphics.setComposite(AlphaComposite.Clear);
+                    graphics.fillRect(x, y, image.getWidth(), image.getHeight());
+                    graphics.setComposite(AlphaComposite.SrcOver);
+                } else if (restore) {
+                    graphics.setComposite(AlphaComposite.Src);
+                    graphics.drawImage(saved, 0, 0, null);
+                    graphics.setComposite(AlphaComposite.SrcOver);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        return new Animation(width, height, ring, delays);
+    }
+
+    private static Node findNode(final Node root, final String name) {
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName()))
+                return node;
+        }
+
+        return null;
+    }
+
+    private static String getAttribute(final Node node, final String name, final String defaultValue) {
+        final Node attribute = node.getAttributes().getNamedItem(name);
+        return attribute == null ? defaultValue : attribute.getNodeValue();
+    }
+
+    private static int getIntAttribute(final Node node, final String name, final int defaultValue) {
+        final String value = getAttribute(node, name, null);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    @APIComponent
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Gets a frame of the animation, as a view into the decoded frames.
+     * @param index Index of the frame.
+     * @return The frame.
+     */
+    @APIComponent
+    public Rgb565Image getFrame(final int index) {
+        return frames[index];
+    }
+
+    /**
+     * Gets the time to show a frame.
+     * @param index Index of the frame.
+     * @return Delay of the frame, in milliseconds.
+     */
+    @APIComponent
+    public int getDelay(final int index) {
+        return delays[index];
+    }
+
+    /**
+     * Gets the total length of one run through the animation.
+     * @return Duration of the animation, in milliseconds.
+     */
+    @APIComponent
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the frame showing at a point in the animation.
+     * @param time Time from the start of the animation, in milliseconds, less than {@link #getDuration()}.
+     * @return Index of the frame.
+     */
+    @APIComponent
+    public int getFrameAt(final long time) {
+        int low = 0;
+        int high = frameStarts.length - 1;
+
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (frameStarts[mid] <= time)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+
+        return low;
+    }
+
+    /**
+     * Gets the time a frame starts showing.
+     * @param index Index of the frame.
+     * @return Start time of the frame, in milliseconds from the start of the animation.
+     */
+    @APIComponent
+    public long getFrameStart(final int index) {
+        return frameStarts[index];
+    }
+}
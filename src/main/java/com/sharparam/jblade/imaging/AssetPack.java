@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Single file holding any number of named RGB565 images, opened with one memory mapping.
+ * Images are found through an open addressing hash index stored in the file, so a lookup reads a
+ * handful of index slots no matter how many images the pack holds. Packs are created with {@link AssetPackWriter}.
+ * <p>
+ * Layout, all values little-endian:
+ * <pre>
+ * offset  size  contents
+ *      0     4  magic, the ASCII characters "RZPK"
+ *      4     2  format version, currently 1
+ *      6     2  reserved, zero
+ *      8     4  number of images
+ *     12     4  number of index slots, a power of two
+ *     16     *  index slots, {@value #SLOT_SIZE} bytes each:
+ *               name hash, name offset, image offset, image length
+ *               (an offset of zero marks an empty slot)
+ *      *     *  names, each a 16-bit length followed by that many UTF-8 bytes
+ *      *     *  images, each a raw frame as written by {@link RawFrame}, aligned to 8 bytes
+ * </pre>
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class AssetPack {
+    /**
+     * Magic number identifying an asset pack, "RZPK" read as a little-endian int.
+     */
+    @APIComponent
+    public static final int MAGIC = 'R' | 'Z' << 8 | 'P' << 16 | 'K' << 24;
+
+    /**
+     * Current version of the format.
+     */
+    @APIComponent
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int SLOT_SIZE = 16;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String path;
+    private final ByteBuffer data;
+    private final int imageCount;
+    private final int slotMask;
+
+    private AssetPack(final String path, final ByteBuffer data) throws IOException {
+        this.path = path;
+        this.data = data;
+
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC)
+            throw new IOException(path + " is not an asset pack");
+
+        final int version = data.getShort(4) & 0xFFFF;
+        if (version != VERSION)
+            throw new IOException(String.format("%s has unsupported asset pack version %d", path, version));
+
+        imageCount = data.getInt(8);
+        final int slots = data.getInt(12);
+
+        if (slots <= 0 || Integer.bitCount(slots) != 1 || HEADER_SIZE + (long) slots * SLOT_SIZE > data.capacity())
+            throw new IOException(path + " has a corrupt index");
+
+        slotMask = slots - 1;
+    }
+
+    /**
+     * Opens an asset pack, mapping the whole file into memory.
+     * @param path Path to the asset pack.
+     * @return The opened pack.
+     * @throws IOException If the file could not be mapped or is not a valid asset pack.
+     */
+    @APIComponent
+    public static AssetPack open(final String path) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "r");
+        final MappedByteBuffer buffer;
+
+        try {
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        } finally {
+            file.close();
+        }
+
+        return new AssetPack(path, buffer.order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Hash used for the index, spreads the bits of String.hashCode so linear probing stays short.
+     * Never returns zero, so the hash of a used slot can't be mistaken for an empty one.
+     */
+    static int hash(final String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    @APIComponent
+    public String getPath() {
+        return path;
+    }
+
+    @APIComponent
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    /**
+     * Checks whether the pack has an image with a name.
+     * @param name Name of the image.
+     * @return True if the pack has an image with that name.
+     * @throws IOException If the index of the pack is corrupt.
+     */
+    @APIComponent
+    public boolean contains(final String name) throws IOException {
+        return findSlot(name) >= 0;
+    }
+
+    /**
+     * Looks up an image in the pack.
+     * @param name Name of the image.
+     * @return The entry, or null if the pack has no image with that name.
+     * @throws IOException If the image data in the pack is corrupt.
+     */
+    @APIComponent
+    public Entry get(final String name) throws IOException {
+        final int slot = findSlot(name);
+        if (slot < 0)
+            return null;
+
+        final int imageOffset = data.getInt(slot + 8);
+        final int imageLength = data.getInt(slot + 12);
+
+        if (imageOffset < HEADER_SIZE || imageLength < 0 || (long) imageOffset + imageLength > data.limit())
+            throw new IOException(String.format("%s has a corrupt entry for %s: %d bytes at %d, pack is %d bytes",
+                                                path, name, imageLength, imageOffset, data.limit()));
+
+        final ByteBuffer image = data.duplicate();
+        image.position(imageOffset);
+        image.limit(imageOffset + imageLength);
+
+        return new Entry(this, name, RawFrame.read(image, path + ":" + name));
+    }
+
+    /**
+     * Finds the index slot of an image.
+     * @return Byte offset of the slot, or -1 if the name is not in the pack.
+     * @throws IOException If a name probed on the way lies outside of the pack.
+     */
+    private int findSlot(final String name) throws IOException {
+        final int hash = hash(name);
+        byte[] encoded = null;
+
+        for (int i = hash & slotMask, probes = 0; probes <= slotMask; i = (i + 1) & slotMask, probes++) {
+            final int slot = HEADER_SIZE + i * SLOT_SIZE;
+            final int nameOffset = data.getInt(slot + 4);
+
+            if (nameOffset == 0)
+                return -1;
+
+            if (data.getInt(slot) != hash)
+                continue;
+
+            if (encoded == null)
+                encoded = name.getBytes(UTF_8);
+
+            if (nameEquals(nameOffset, encoded))
+                return slot;
+        }
+
+        return -1;
+    }
+
+    private boolean nameEquals(final int offset, final byte[] name) throws IOException {
+        if (offset < HEADER_SIZE || (long) offset + 2 > data.limit())
+            throw new IOException(String.format("%s has a corrupt name at %d, pack is %d bytes",
+                                                path, offset, data.limit()));
+
+        final int length = data.getShort(offset) & 0xFFFF;
+        if ((long) offset + 2 + length > data.limit())
+            throw new IOException(String.format("%s has a corrupt name: %d bytes at %d, pack is %d bytes",
+                                                path, length, offset + 2, data.limit()));
+
+        if (length != name.length)
+            return false;
+
+        for (int i = 0; i < length; i++) {
+            if (data.get(offset + 2 + i) != name[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Image stored in an asset pack, its pixels are read straight from the mapped pack.
+     */
+    public static class Entry {
+        private final AssetPack pack;
+        private final String name;
+        private final Rgb565Image image;
+
+        private Entry(final AssetPack pack, final String name, final Rgb565Image image) {
+            this.pack = pack;
+            this.name = name;
+            this.image = image;
+        }
+
+        @APIComponent
+        public AssetPack getPack() {
+            return pack;
+        }
+
+        @APIComponent
+        public String getName() {
+            return name;
+        }
+
+        @APIComponent
+        public Rgb565Image getImage() {
+            return image;
+        }
+    }
+}
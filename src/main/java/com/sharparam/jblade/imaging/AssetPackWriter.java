@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects named images and writes them as an {@link AssetPack}.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class AssetPackWriter {
+    private final Map<String, Rgb565Image> images;
+
+    @APIComponent
+    public AssetPackWriter() {
+        images = new LinkedHashMap<String, Rgb565Image>();
+    }
+
+    /**
+     * Adds an image to the pack, replacing any image already added under the same name.
+     * @param name Name to look the image up by.
+     * @param image The image.
+     */
+    @APIComponent
+    public void add(final String name, final Rgb565Image image) {
+        if (name.getBytes(AssetPack.UTF_8).length > 0xFFFF)
+            throw new IllegalArgumentException("Name is too long");
+
+        images.put(name, image);
+    }
+
+    /**
+     * Adds an image to the pack, converting it to RGB565.
+     * @param name Name to look the image up by.
+     * @param image The image.
+     */
+    @APIComponent
+    public void add(final String name, final BufferedImage image) {
+        add(name, Rgb565Image.fromImage(image));
+    }
+
+    /**
+     * Adds an image file in any format supported by ImageIO to the pack.
+     * @param name Name to look the image up by.
+     * @param path Path to the image file.
+     * @throws IOException If the file could not be read or is not a supported image format.
+     */
+    @APIComponent
+    public void add(final String name, final String path) throws IOException {
+        final BufferedImage image = ImageIO.read(new File(path));
+        if (image == null)
+            throw new IOException("Unsupported image format: " + path);
+
+        add(name, image);
+    }
+
+    /**
+     * Writes the pack.
+     * @param path Path of the file to write.
+     * @throws IOException If the file could not be written.
+     */
+    @APIComponent
+    public void write(final String path) throws IOException {
+        // Keep the index at most half full
+        int slots = 1;
+        while (slots < images.size() * 2)
+            slots <<= 1;
+
+        final byte[][] names = new byte[images.size()][];
+        long size = AssetPack.HEADER_SIZE + (long) slots * AssetPack.SLOT_SIZE;
+
+        int i = 0;
+        for (final String name : images.keySet()) {
+            names[i] = name.getBytes(AssetPack.UTF_8);
+            size += 2 + names[i].length;
+            i++;
+        }
+
+        for (final Rgb565Image image : images.values())
+            size = align(size) + RawFrame.getFileSize(image.getWidth(), image.getHeight());
+
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Asset pack would be larger than 2 GB");
+
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(AssetPack.MAGIC);
+        buffer.putShort((short) AssetPack.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(images.size());
+        buffer.putInt(slots);
+
+        int nameOffset = AssetPack.HEADER_SIZE + slots * AssetPack.SLOT_SIZE;
+        int imageOffset = nameOffset;
+        for (final byte[] name : names)
+            imageOffset += 2 + name.length;
+
+        i = 0;
+        for (final Map.Entry<String, Rgb565Image> entry : images.entrySet()) {
+            final Rgb565Image image = entry.getValue();
+            final int hash = AssetPack.hash(entry.getKey());
+
+            int slot = hash & (slots - 1);
+            while (buffer.getInt(AssetPack.HEADER_SIZE + slot * AssetPack.SLOT_SIZE + 4) != 0)
+                slot = (slot + 1) & (slots - 1);
+
+            imageOffset = (int) align(imageOffset);
+            final int imageLength = RawFrame.getFileSize(image.getWidth(), image.getHeight());
+
+            final int slotOffset = AssetPack.HEADER_SIZE + slot * AssetPack.SLOT_SIZE;
+            buffer.putInt(slotOffset, hash);
+            buffer.putInt(slotOffset + 4, nameOffset);
+            buffer.putInt(slotOffset + 8, imageOffset);
+            buffer.putInt(slotOffset + 12, imageLength);
+
+            buffer.position(nameOffset);
+            buffer.putShort((short) names[i].length);
+            buffer.put(names[i]);
+            nameOffset = buffer.position();
+
+            buffer.position(imageOffset);
+            RawFrame.encode(image, buffer);
+            imageOffset += imageLength;
+
+            i++;
+        }
+
+        buffer.position(0);
+
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            final FileChannel channel = file.getChannel();
+            file.setLength(0);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } finally {
+            file.close();
+        }
+    }
+
+    private static long align(final long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes, resamples and converts sets of images concurrently at startup, on a bounded pool of threads.
+ * Each call to {@link #preload(Collection, int, int, Resampler.Fit, long)} returns a cache right away,
+ * which can be set on render targets before loading has finished: getting an image from it waits only
+ * for that image. {@link #awaitAll()} waits for everything and reports how long each image took.
+ * <p>
+ * A preloader can load several sets, its threads are kept until {@link #shutdown()} is called.
+ * The threads are daemon threads, so a preloader that is never shut down does not keep the JVM alive.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class AssetPreloader {
+    private final Logger log;
+
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final long startNanos;
+
+    /**
+     * Status of every image submitted so far, guarded by this. Holds no reference to the images themselves.
+     */
+    private final List<PreloadReport.Asset> assets;
+
+    /**
+     * Number of submitted images not yet finished, guarded by this.
+     */
+    private int outstanding;
+
+    /**
+     * Creates a preloader.
+     * @param parallelism Maximum number of images to load at the same time.
+     */
+    @APIComponent
+    public AssetPreloader(final int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("parallelism must be positive");
+
+        log = LogManager.getLogger();
+        this.parallelism = parallelism;
+
+        final AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "JBlade preloader " + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        startNanos = System.nanoTime();
+        assets = new ArrayList<PreloadReport.Asset>();
+    }
+
+    /**
+     * Creates a preloader using one thread per available processor.
+     */
+    @APIComponent
+    public AssetPreloader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    @APIComponent
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Starts loading a set of images, resampled to one size, in the order given.
+     * @param paths Paths to the image files.
+     * @param width Width to resize the images to, e.g. RazerAPI.DYNAMIC_KEY_WIDTH.
+     * @param height Height to resize the images to, e.g. RazerAPI.DYNAMIC_KEY_HEIGHT.
+     * @param fit How to fit images with a different aspect ratio.
+     * @param maxBytes Maximum total size of the returned cache, in bytes.
+     * @return Cache the images are loaded into.
+     */
+    @APIComponent
+    public synchronized PreloadedImageCache preload(final Collection<String> paths, final int width,
+                                                    final int height, final Resampler.Fit fit, final long maxBytes) {
+        if (executor.isShutdown())
+            throw new IllegalStateException("The preloader has been shut down");
+
+        final PreloadedImageCache cache = new PreloadedImageCache(maxBytes, width, height, fit);
+
+        for (final String path : paths) {
+            final PreloadReport.Asset asset = new PreloadReport.Asset(path, width, height);
+            assets.add(asset);
+            outstanding++;
+
+            final FutureTask<Rgb565Image> task = new FutureTask<Rgb565Image>(new Callable<Rgb565Image>() {
+                @Override
+                public Rgb565Image call() throws IOException {
+                    asset.started = System.nanoTime() - startNanos;
+                    try {
+                        return cache.preload(path);
+                    } catch (final IOException ex) {
+                        asset.error = ex;
+                        throw ex;
+                    } finally {
+                        asset.finished = System.nanoTime() - startNanos;
+                    }
+                }
+            }) {
+                @Override
+                protected void done() {
+                    if (isCancelled())
+                        asset.error = new IOException("Preloading " + path + " was cancelled");
+
+                    cache.removePending(path, this);
+                    taskFinished();
+                }
+            };
+
+            // Registered before it can run, so its removal when done can't be undone by a late add
+            cache.addPending(path, task);
+            executor.execute(task);
+        }
+
+        return cache;
+    }
+
+    private synchronized void taskFinished() {
+        outstanding--;
+        notifyAll();
+    }
+
+    /**
+     * Waits for all images submitted so far to be loaded.
+     * @return Timings of every image submitted so far, and the time from creating the preloader until now.
+     * @throws InterruptedException If the calling thread was interrupted while waiting.
+     */
+    @APIComponent
+    public synchronized PreloadReport awaitAll() throws InterruptedException {
+        while (outstanding > 0)
+            wait();
+
+        final PreloadReport report = new PreloadReport(assets, System.nanoTime() - startNanos, parallelism);
+        log.info("Preloaded {}", report);
+        return report;
+    }
+
+    /**
+     * Stops the threads of the preloader without waiting, images not yet started are not loaded.
+     * The preloader can't be used after this.
+     */
+    @APIComponent
+    public void shutdown() {
+        // Cancel what never started, so waiters on those images are released
+        for (final Runnable task : executor.shutdownNow())
+            ((FutureTask<?>) task).cancel(false);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.image.BufferedImage;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * RGB565 image compressed with a run-length code suited to UI art with large flat areas.
+ * Pixels are coded row after row as one stream of tokens, each a variable-length count
+ * followed either by one pixel repeated count times (a run) or by count literal pixels.
+ * Runs may cross row boundaries, so a solid frame codes to a handful of bytes.
+ * <p>
+ * Decoding writes straight into the destination buffer and allocates nothing.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public final class CompressedFrame {
+    /**
+     * Shortest run worth coding as a run, shorter runs are cheaper to keep in a literal.
+     */
+    private static final int MIN_RUN = 3;
+
+    private final int width;
+    private final int height;
+    private final byte[] data;
+
+    private CompressedFrame(final int width, final int height, final byte[] data) {
+        this.width = width;
+        this.height = height;
+        this.data = data;
+    }
+
+    /**
+     * Compresses an image.
+     * @param image The image to compress.
+     * @return The compressed image.
+     */
+    @APIComponent
+    public static CompressedFrame encode(final Rgb565Image image) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int stride = image.getStride();
+        final ShortBuffer pixels = image.pixelBuffer();
+        final int count = width * height;
+
+        final Output out = new Output(Math.max(64, count / 8));
+
+        int i = 0;
+        while (i < count) {
+            final short pixel = pixel(pixels, i, width, stride);
+
+            int run = 1;
+            while (i + run < count && pixel(pixels, i + run, width, stride) == pixel)
+                run++;
+
+            if (run >= MIN_RUN) {
+                out.putCount(run, true);
+                out.putPixel(pixel);
+                i += run;
+                continue;
+            }
+
+            // Extend the literal until the next run worth coding
+            int end = i + run;
+            while (end < count) {
+                final short next = pixel(pixels, end, width, stride);
+                if (end + 2 < count
+                        && pixel(pixels, end + 1, width, stride) == next
+                        && pixel(pixels, end + 2, width, stride) == next)
+                    break;
+                end++;
+            }
+
+            out.putCount(end - i, false);
+            for (; i < end; i++)
+                out.putPixel(pixel(pixels, i, width, stride));
+        }
+
+        return new CompressedFrame(width, height, out.toByteArray());
+    }
+
+    /**
+     * Converts an image to RGB565 and compresses it.
+     * @param image The image to compress.
+     * @return The compressed image.
+     */
+    @APIComponent
+    public static CompressedFrame encode(final BufferedImage image) {
+        return encode(Rgb565Image.fromImage(image));
+    }
+
+    private static short pixel(final ShortBuffer pixels, final int index, final int width, final int stride) {
+        return width == stride ? pixels.get(index) : pixels.get(index / width * stride + index % width);
+    }
+
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the size of the compressed pixel data.
+     * @return Compressed size, in bytes.
+     */
+    @APIComponent
+    public int getCompressedSize() {
+        return data.length;
+    }
+
+    /**
+     * Gets the size of the pixel data once decompressed.
+     * @return Decompressed size, in bytes.
+     */
+    @APIComponent
+    public int getSize() {
+        return width * height * 2;
+    }
+
+    /**
+     * Decompresses the frame into a buffer laid out row after row without padding.
+     * The position of the buffer is not changed.
+     * @param dest Buffer to write to, must hold at least width * height pixels after its position.
+     */
+    @APIComponent
+    public void decode(final ShortBuffer dest) {
+        decode(dest, dest.position(), width);
+    }
+
+    /**
+     * Decompresses the frame into an image.
+     * @param dest Image to write to, must have the same size as this frame.
+     */
+    @APIComponent
+    public void decode(final Rgb565Image dest) {
+        if (dest.getWidth() != width || dest.getHeight() != height)
+            throw new IllegalArgumentException(String.format("Image needs to be %dx%d, was %dx%d",
+                                                             width, height, dest.getWidth(), dest.getHeight()));
+
+        decode(dest.pixelBuffer(), 0, dest.getStride());
+    }
+
+    /**
+     * Decompresses the frame into a buffer.
+     * @param dest Buffer to write to.
+     * @param offset Index in dest of the top left pixel.
+     * @param stride Number of pixels between the start of two rows in dest.
+     */
+    @APIComponent
+    public void decode(final ShortBuffer dest, final int offset, final int stride) {
+        if (stride == width)
+            decodeContiguous(dest, offset);
+        else
+            decodeStrided(dest, offset, stride);
+    }
+
+    private void decodeContiguous(final ShortBuffer dest, final int offset) {
+        final byte[] data = this.data;
+        int in = 0;
+        int out = offset;
+
+        while (in < data.length) {
+            int token = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[in++];
+                token |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            final int count = token >>> 1;
+
+            if ((token & 1) != 0) {
+                final short pixel = (short) (data[in] & 0xFF | data[in + 1] << 8);
+                in += 2;
+                for (final int end = out + count; out < end; out++)
+                    dest.put(out, pixel);
+            } else {
+                for (final int end = out + count; out < end; out++, in += 2)
+                    dest.put(out, (short) (data[in] & 0xFF | data[in + 1] << 8));
+            }
+        }
+    }
+
+    private void decodeStrided(final ShortBuffer dest, final int offset, final int stride) {
+        final byte[] data = this.data;
+        int in = 0;
+        int x = 0;
+        int row = offset;
+
+        while (in < data.length) {
+            int token = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data[in++];
+                token |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            final boolean run = (token & 1) != 0;
+            short pixel = 0;
+            if (run) {
+                pixel = (short) (data[in] & 0xFF | data[in + 1] << 8);
+                in += 2;
+            }
+
+            for (int remaining = token >>> 1; remaining > 0; remaining--) {
+                if (run) {
+                    dest.put(row + x, pixel);
+                } else {
+                    dest.put(row + x, (short) (data[in] & 0xFF | data[in + 1] << 8));
+                    in += 2;
+                }
+
+                if (++x == width) {
+                    x = 0;
+                    row += stride;
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable byte array the encoder writes tokens to.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int length;
+
+        Output(final int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void putCount(final int count, final boolean run) {
+            int token = count << 1 | (run ? 1 : 0);
+            while ((token & ~0x7F) != 0) {
+                put(token & 0x7F | 0x80);
+                token >>>= 7;
+            }
+            put(token);
+        }
+
+        void putPixel(final short pixel) {
+            put(pixel & 0xFF);
+            put(pixel >> 8 & 0xFF);
+        }
+
+        private void put(final int b) {
+            if (length == bytes.length)
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[length++] = (byte) b;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
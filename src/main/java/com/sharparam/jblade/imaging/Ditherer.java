@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dithered conversion to RGB565, split into horizontal stripes converted in parallel on the common fork/join pool.
+ * Ordered dithering only depends on the pixel position, so stripes match a single threaded conversion exactly.
+ * Error diffusion starts each stripe with no carried error, which is not visible at the seams in practice.
+ * Stripes have a fixed height, so the output is the same on every machine no matter how many threads convert it.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class Ditherer {
+    /**
+     * Images smaller than this many pixels are converted on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    /**
+     * Height of a stripe, a constant rather than derived from the number of threads so the output of
+     * error diffusion does not depend on the machine.
+     */
+    private static final int STRIPE_ROWS = 32;
+
+    private static final int[] BAYER = {
+             0, 32,  8, 40,  2, 34, 10, 42,
+            48, 16, 56, 24, 50, 18, 58, 26,
+            12, 44,  4, 36, 14, 46,  6, 38,
+            60, 28, 52, 20, 62, 30, 54, 22,
+             3, 35, 11, 43,  1, 33,  9, 41,
+            51, 19, 59, 27, 49, 17, 57, 25,
+            15, 47,  7, 39, 13, 45,  5, 37,
+            63, 31, 55, 23, 61, 29, 53, 21
+    };
+
+    /**
+     * Bayer thresholds scaled to the quantization step of the 5-bit and 6-bit components.
+     */
+    private static final int[] THRESHOLD_5 = new int[64];
+    private static final int[] THRESHOLD_6 = new int[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            THRESHOLD_5[i] = BAYER[i] * 8 / 64;
+            THRESHOLD_6[i] = BAYER[i] * 4 / 64;
+        }
+    }
+
+    private Ditherer() {
+    }
+
+    static void convert(final BufferedImage image, final int x, final int y, final int width, final int height,
+                        final ShortBuffer dest, final int destOffset, final int destStride, final DitherMode mode) {
+        if ((long) width * height < PARALLEL_THRESHOLD) {
+            for (int row = 0; row < height; row += STRIPE_ROWS) {
+                new Stripe(image, x, y, width, dest, destOffset, destStride, mode,
+                           row, Math.min(row + STRIPE_ROWS, height)).convertRows();
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(new Stripe(image, x, y, width, dest, destOffset, destStride, mode,
+                                                        0, height));
+        }
+    }
+
+    private static int clamp(final int value) {
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+
+    private static int expand5(final int value) {
+        return value << 3 | value >> 2;
+    }
+
+    private static int expand6(final int value) {
+        return value << 2 | value >> 4;
+    }
+
+    /**
+     * Converts a range of rows, splitting itself in halves until the range is one stripe long.
+     */
+    private static final class Stripe extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BufferedImage image;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final ShortBuffer dest;
+        private final int destOffset;
+        private final int destStride;
+        private final DitherMode mode;
+        private final int startRow;
+        private final int endRow;
+
+        private Stripe(final BufferedImage image, final int x, final int y, final int width, final ShortBuffer dest,
+                       final int destOffset, final int destStride, final DitherMode mode,
+                       final int startRow, final int endRow) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.dest = dest;
+            this.destOffset = destOffset;
+            this.destStride = destStride;
+            this.mode = mode;
+            this.startRow = startRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - startRow <= STRIPE_ROWS) {
+                convertRows();
+                return;
+            }
+
+            // Split on a stripe boundary so the result does not depend on how the work was divided
+            final int stripes = (endRow - startRow + STRIPE_ROWS - 1) / STRIPE_ROWS;
+            final int middle = startRow + stripes / 2 * STRIPE_ROWS;
+            invokeAll(new Stripe(image, x, y, width, dest, destOffset, destStride, mode, startRow, middle),
+                      new Stripe(image, x, y, width, dest, destOffset, destStride, mode, middle, endRow));
+        }
+
+        private void convertRows() {
+            final RowReader reader = new RowReader(image, x, y, width);
+
+            if (mode == DitherMode.ORDERED)
+                convertOrdered(reader);
+            else
+                convertDiffused(reader);
+        }
+
+        private void convertOrdered(final RowReader reader) {
+            for (int row = startRow; row < endRow; row++) {
+                final int[] pixels = reader.read(row);
+                int src = reader.getOffset();
+                final int out = destOffset + row * destStride;
+                final int thresholdRow = ((y + row) & 7) << 3;
+
+                for (int col = 0; col < width; col++, src++) {
+                    final int argb = argbOnBlack(pixels[src], reader.isOpaque());
+                    final int t = thresholdRow + ((x + col) & 7);
+                    final int r = Math.min(255, ((argb >> 16) & 0xFF) + THRESHOLD_5[t]);
+                    final int g = Math.min(255, ((argb >> 8) & 0xFF) + THRESHOLD_6[t]);
+                    final int b = Math.min(255, (argb & 0xFF) + THRESHOLD_5[t]);
+                    dest.put(out + col, PixelConverter.toRgb565(r, g, b));
+                }
+            }
+        }
+
+        /**
+         * Floyd-Steinberg with serpentine scanning, errors are kept in sixteenths of a component level.
+         */
+        private void convertDiffused(final RowReader reader) {
+            // One padding entry on each side so neighbours of the edge pixels need no checks
+            int[] current = new int[(width + 2) * 3];
+            int[] next = new int[(width + 2) * 3];
+
+            for (int row = startRow; row < endRow; row++) {
+                final int[] pixels = reader.read(row);
+                final int offset = reader.getOffset();
+                final int out = destOffset + row * destStride;
+                final boolean reverse = ((row - startRow) & 1) != 0;
+                final int step = reverse ? -1 : 1;
+
+                for (int i = 0, col = reverse ? width - 1 : 0; i < width; i++, col += step) {
+                    final int argb = argbOnBlack(pixels[offset + col], reader.isOpaque());
+                    final int e = (col + 1) * 3;
+
+                    final int r = clamp(((argb >> 16) & 0xFF) + (current[e] + 8 >> 4));
+                    final int g = clamp(((argb >> 8) & 0xFF) + (current[e + 1] + 8 >> 4));
+                    final int b = clamp((argb & 0xFF) + (current[e + 2] + 8 >> 4));
+
+                    final int r5 = r >> 3;
+                    final int g6 = g >> 2;
+                    final int b5 = b >> 3;
+                    dest.put(out + col, (short) (r5 << 11 | g6 << 5 | b5));
+
+                    diffuse(current, next, e, step * 3, r - expand5(r5));
+                    diffuse(current, next, e + 1, step * 3, g - expand6(g6));
+                    diffuse(current, next, e + 2, step * 3, b - expand5(b5));
+                }
+
+                final int[] swap = current;
+                current = next;
+                next = swap;
+                Arrays.fill(next, 0);
+            }
+        }
+
+        private static void diffuse(final int[] current, final int[] next, final int index, final int step,
+                                    final int error) {
+            current[index + step] += error * 7;
+            next[index - step] += error * 3;
+            next[index] += error * 5;
+            next[index + step] += error;
+        }
+
+        /**
+         * Composites a pixel onto black the same way {@link PixelConverter#toRgb565(int)} does.
+         */
+        private static int argbOnBlack(final int argb, final boolean opaque) {
+            final int a = argb >>> 24;
+            if (opaque || a == 0xFF)
+                return argb;
+
+            return PixelConverter.blend((argb >> 16) & 0xFF, a) << 16
+                    | PixelConverter.blend((argb >> 8) & 0xFF, a) << 8
+                    | PixelConverter.blend(argb & 0xFF, a);
+        }
+    }
+
+    /**
+     * Gives access to rows of an image as ARGB, straight from the backing array for the int types.
+     */
+    private static final class RowReader {
+        private final BufferedImage image;
+        private final int x;
+        private final int y;
+        private final int width;
+
+        private final int[] data;
+        private final int start;
+        private final int stride;
+        private final boolean opaque;
+
+        private int offset;
+
+        private RowReader(final BufferedImage image, final int x, final int y, final int width) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+
+            final int type = image.getType();
+            if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
+                final Raster raster = image.getRaster();
+                final DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+                data = dataBuffer.getData();
+                stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+                start = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * stride
+                        + x - raster.getSampleModelTranslateX();
+                opaque = type == BufferedImage.TYPE_INT_RGB;
+            } else {
+                data = new int[width];
+                stride = 0;
+                start = -1;
+                opaque = false;
+            }
+        }
+
+        /**
+         * Reads a row, the first pixel of it is at {@link #getOffset()} in the returned array.
+         * Pixels of opaque images may have any value in their alpha bits, see {@link #isOpaque()}.
+         */
+        private int[] read(final int row) {
+            if (start < 0) {
+                image.getRGB(x, y + row, width, 1, data, 0, width);
+                offset = 0;
+                return data;
+            }
+
+            offset = start + row * stride;
+            return data;
+        }
+
+        private int getOffset() {
+            return offset;
+        }
+
+        private boolean isOpaque() {
+            return opaque;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Sequence of frames read one at a time, for playing sequences too long to decode into memory up front.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public interface FrameSource extends Closeable {
+    @APIComponent
+    int getWidth();
+
+    @APIComponent
+    int getHeight();
+
+    /**
+     * Gets the time each frame is shown.
+     * @return The frame interval, in nanoseconds.
+     */
+    @APIComponent
+    long getFrameInterval();
+
+    /**
+     * Reads the next frame.
+     * @param dest Buffer to read the frame into as little-endian RGB565 pixels, starting at index 0.
+     *             It must hold width * height * 2 bytes, its position and limit are not preserved.
+     * @return True if a frame was read, false if the end of the sequence has been reached.
+     * @throws IOException If the frame could not be read.
+     */
+    @APIComponent
+    boolean read(final ByteBuffer dest) throws IOException;
+
+    /**
+     * Goes back to the first frame of the sequence.
+     * @throws IOException If the source could not be rewound.
+     */
+    @APIComponent
+    void rewind() throws IOException;
+}
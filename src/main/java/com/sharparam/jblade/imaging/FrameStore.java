@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps frames compressed in memory and decompresses them just in time,
+ * trading some CPU on every draw for a much smaller heap when holding many large frames.
+ * The store reports the compression ratio of what it holds, DecodeBenchmark in the jmh profile
+ * measures the other side of the trade.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class FrameStore {
+    private final List<CompressedFrame> frames;
+
+    private long size;
+    private long compressedSize;
+
+    @APIComponent
+    public FrameStore() {
+        frames = new ArrayList<CompressedFrame>();
+    }
+
+    /**
+     * Compresses an image and adds it to the store.
+     * @param image The image to add.
+     * @return The compressed frame.
+     */
+    @APIComponent
+    public CompressedFrame add(final Rgb565Image image) {
+        return add(CompressedFrame.encode(image));
+    }
+
+    /**
+     * Converts an image to RGB565, compresses it and adds it to the store.
+     * @param image The image to add.
+     * @return The compressed frame.
+     */
+    @APIComponent
+    public CompressedFrame add(final BufferedImage image) {
+        return add(Rgb565Image.fromImage(image));
+    }
+
+    /**
+     * Adds a frame that has already been compressed.
+     * @param frame The frame to add.
+     * @return The added frame.
+     */
+    @APIComponent
+    public synchronized CompressedFrame add(final CompressedFrame frame) {
+        frames.add(frame);
+        size += frame.getSize();
+        compressedSize += frame.getCompressedSize();
+
+        return frame;
+    }
+
+    /**
+     * Compresses every frame of an animation and adds them to the store, in order.
+     * @param animation The animation to add.
+     * @return Index of the first added frame.
+     */
+    @APIComponent
+    public synchronized int addAll(final Animation animation) {
+        final int first = frames.size();
+
+        for (int i = 0; i < animation.getFrameCount(); i++)
+            add(animation.getFrame(i));
+
+        return first;
+    }
+
+    @APIComponent
+    public synchronized CompressedFrame get(final int index) {
+        return frames.get(index);
+    }
+
+    @APIComponent
+    public synchronized int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * Gets the size the frames in this store would take decompressed.
+     * @return Total decompressed size, in bytes.
+     */
+    @APIComponent
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the size of the compressed data held by this store.
+     * @return Total compressed size, in bytes.
+     */
+    @APIComponent
+    public synchronized long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Gets how many times smaller the frames are compressed.
+     * @return Decompressed size divided by compressed size, 0 if the store is empty.
+     */
+    @APIComponent
+    public synchronized double getCompressionRatio() {
+        return compressedSize == 0 ? 0 : (double) size / compressedSize;
+    }
+}
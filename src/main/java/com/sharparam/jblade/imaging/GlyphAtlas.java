@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.*;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextAttribute;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Antialiased glyphs of a font packed into one coverage atlas, for drawing text with {@link Rgb565Canvas}.
+ * Each character is rasterized once, the first time it is used or when preloaded, together with its advance.
+ * Kerning between two characters is looked up once per pair. After that, drawing a string is one small
+ * blended blit per character with no font layout work and no allocation.
+ * <p>
+ * The atlas holds 8-bit coverage rather than colors, so one atlas draws text in any color.
+ * Advances and kerning are kept in 1/64 pixel units, so spacing doesn't drift along a string.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class GlyphAtlas {
+    /**
+     * Fractional bits of advances and kerning, 26.6 fixed point.
+     */
+    static final int SHIFT = 6;
+    static final int ONE = 1 << SHIFT;
+
+    private static final int PADDING = 1;
+
+    private final GlyphRasterizer rasterizer;
+
+    /**
+     * Coverage of all rasterized glyphs, atlasWidth bytes per row.
+     * Grows taller as glyphs are added, and wider if a glyph does not fit across it.
+     */
+    private byte[] atlas;
+    private int atlasWidth;
+    private int atlasHeight;
+
+    /**
+     * Shelf packing state, glyphs are placed left to right on shelves as tall as their tallest glyph.
+     */
+    private int shelfX;
+    private int shelfY;
+    private int shelfHeight;
+
+    private Glyph[] glyphs;
+
+    /**
+     * Open addressing map of character pairs to kerning, keys are (left << 16 | right) + 1 so 0 means empty.
+     */
+    private int[] kerningKeys;
+    private int[] kerningValues;
+    private int kerningCount;
+
+    /**
+     * Creates a glyph atlas for a font.
+     * @param font The font to rasterize, kerning is applied if the font supports it.
+     */
+    @APIComponent
+    public GlyphAtlas(final Font font) {
+        rasterizer = new GlyphRasterizer(
+                font.deriveFont(Collections.singletonMap(TextAttribute.KERNING, TextAttribute.KERNING_ON)));
+
+        atlasWidth = 256;
+        atlasHeight = 64;
+        atlas = new byte[atlasWidth * atlasHeight];
+
+        glyphs = new Glyph[128];
+
+        kerningKeys = new int[256];
+        kerningValues = new int[256];
+    }
+
+    @APIComponent
+    public Font getFont() {
+        return rasterizer.getFont();
+    }
+
+    @APIComponent
+    public int getAscent() {
+        return rasterizer.getAscent();
+    }
+
+    @APIComponent
+    public int getDescent() {
+        return rasterizer.getDescent();
+    }
+
+    @APIComponent
+    public int getLineHeight() {
+        return rasterizer.getLineHeight();
+    }
+
+    /**
+     * Rasterizes characters up front, along with the kerning between every pair of them,
+     * so that drawing strings made of them never has to.
+     * @param characters The characters to prepare, for example "0123456789.,-%".
+     */
+    @APIComponent
+    public synchronized void preload(final CharSequence characters) {
+        for (int i = 0; i < characters.length(); i++) {
+            getGlyph(characters.charAt(i));
+            for (int j = 0; j < characters.length(); j++)
+                getKerning(characters.charAt(i), characters.charAt(j));
+        }
+    }
+
+    /**
+     * Measures the width of a string as it would be drawn.
+     * @param text The text to measure.
+     * @return Width of the text in pixels, rounded.
+     */
+    @APIComponent
+    public synchronized int getWidth(final CharSequence text) {
+        int pen = 0;
+        char previous = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (i > 0)
+                pen += getKerning(previous, c);
+
+            pen += getGlyph(c).advance;
+            previous = c;
+        }
+
+        return (pen + ONE / 2) >> SHIFT;
+    }
+
+    /**
+     * Gets the size of the atlas, for checking how much memory it uses.
+     * @return Size of the coverage atlas, in bytes.
+     */
+    @APIComponent
+    public synchronized int getAtlasSize() {
+        return atlas.length;
+    }
+
+    byte[] getAtlas() {
+        return atlas;
+    }
+
+    int getAtlasWidth() {
+        return atlasWidth;
+    }
+
+    /**
+     * Gets the glyph of a character, rasterizing it if needed. Must be called with the lock on this atlas held.
+     */
+    Glyph getGlyph(final char c) {
+        if (c >= glyphs.length)
+            glyphs = Arrays.copyOf(glyphs, Math.min(Integer.highestOneBit(c) << 1, Character.MAX_VALUE + 1));
+
+        Glyph glyph = glyphs[c];
+        if (glyph == null) {
+            glyph = rasterize(c);
+            glyphs[c] = glyph;
+        }
+
+        return glyph;
+    }
+
+    /**
+     * Gets the kerning between two characters in 1/64 pixels, computing it on first use.
+     * Must be called with the lock on this atlas held.
+     */
+    int getKerning(final char left, final char right) {
+        final int key = (left << 16 | right) + 1;
+        final int mask = kerningKeys.length - 1;
+
+        int slot = mix(key) & mask;
+        while (kerningKeys[slot] != 0) {
+            if (kerningKeys[slot] == key)
+                return kerningValues[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        final int kerning = measureKerning(left, right);
+
+        kerningKeys[slot] = key;
+        kerningValues[slot] = kerning;
+
+        if (++kerningCount * 2 > kerningKeys.length)
+            growKerning();
+
+        return kerning;
+    }
+
+    private static int mix(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void growKerning() {
+        final int[] keys = kerningKeys;
+        final int[] values = kerningValues;
+
+        kerningKeys = new int[keys.length * 2];
+        kerningValues = new int[keys.length * 2];
+        final int mask = kerningKeys.length - 1;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0)
+                continue;
+
+            int slot = mix(keys[i]) & mask;
+            while (kerningKeys[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            kerningKeys[slot] = keys[i];
+            kerningValues[slot] = values[i];
+        }
+    }
+
+    private int measureKerning(final char left, final char right) {
+        final char[] pair = { left, right };
+        final GlyphVector laidOut = rasterizer.getFont().layoutGlyphVector(rasterizer.getRenderContext(), pair, 0, 2,
+                                                                           Font.LAYOUT_LEFT_TO_RIGHT);
+
+        if (laidOut.getNumGlyphs() != 2)
+            return 0;
+
+        final double kerned = laidOut.getGlyphPosition(1).getX();
+        return (int) Math.round(kerned * ONE) - getGlyph(left).advance;
+    }
+
+    private Glyph rasterize(final char c) {
+        final GlyphRasterizer.Coverage coverage = rasterizer.rasterize(c);
+        final int advance = Math.round(coverage.advance * ONE);
+
+        if (coverage.width == 0)
+            return new Glyph(0, 0, 0, 0, 0, 0, advance);
+
+        place(coverage.width, coverage.height);
+
+        for (int y = 0; y < coverage.height; y++)
+            System.arraycopy(coverage.data, y * coverage.width, atlas, (shelfY + y) * atlasWidth + shelfX,
+                             coverage.width);
+
+        final Glyph glyph = new Glyph(shelfX, shelfY, coverage.width, coverage.height, coverage.x, coverage.y,
+                                      advance);
+        shelfX += coverage.width + PADDING;
+        return glyph;
+    }
+
+    /**
+     * Moves the shelf cursor to a free spot for a glyph, growing the atlas if needed.
+     */
+    private void place(final int width, final int height) {
+        if (width + PADDING > atlasWidth)
+            growWidth(width + PADDING);
+
+        if (shelfX + width > atlasWidth) {
+            shelfY += shelfHeight + PADDING;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+
+        shelfHeight = Math.max(shelfHeight, height);
+
+        if (shelfY + shelfHeight > atlasHeight) {
+            while (shelfY + shelfHeight > atlasHeight)
+                atlasHeight *= 2;
+
+            atlas = Arrays.copyOf(atlas, atlasWidth * atlasHeight);
+        }
+    }
+
+    /**
+     * Widens the atlas to fit a glyph wider than it, keeping every placed glyph at the same position.
+     */
+    private void growWidth(final int minWidth) {
+        int width = atlasWidth;
+        while (width < minWidth)
+            width *= 2;
+
+        final byte[] grown = new byte[width * atlasHeight];
+        for (int y = 0; y < atlasHeight; y++)
+            System.arraycopy(atlas, y * atlasWidth, grown, y * width, atlasWidth);
+
+        atlas = grown;
+        atlasWidth = width;
+    }
+
+    /**
+     * Position of a character in the atlas and its metrics relative to the pen position on the baseline.
+     */
+    static final class Glyph {
+        final int atlasX;
+        final int atlasY;
+        final int width;
+        final int height;
+        final int x;
+        final int y;
+
+        /**
+         * Advance in 1/64 pixels.
+         */
+        final int advance;
+
+        Glyph(final int atlasX, final int atlasY, final int width, final int height, final int x, final int y,
+              final int advance) {
+            this.atlasX = atlasX;
+            this.atlasY = atlasY;
+            this.width = width;
+            this.height = height;
+            this.x = x;
+            this.y = y;
+            this.advance = advance;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.*;
+
+/**
+ * Caches glyph masks of a font for drawing solid text with {@link Rgb565Canvas}.
+ * Each character is rasterized through Java2D the first time it is drawn, after that drawing it allocates nothing.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class GlyphCache {
+    /**
+     * Coverage above which a pixel of a glyph is drawn, glyphs are rasterized with antialiasing
+     * so the threshold gives slightly smoother shapes than rendering without it.
+     */
+    private static final int THRESHOLD = 128;
+
+    private final GlyphRasterizer rasterizer;
+
+    private Glyph[] glyphs;
+
+    /**
+     * Creates a glyph cache for a font.
+     * @param font The font to rasterize.
+     */
+    @APIComponent
+    public GlyphCache(final Font font) {
+        rasterizer = new GlyphRasterizer(font);
+        glyphs = new Glyph[128];
+    }
+
+    @APIComponent
+    public Font getFont() {
+        return rasterizer.getFont();
+    }
+
+    /**
+     * Gets the distance from the top of a line to its baseline.
+     * @return The ascent of the font, in pixels.
+     */
+    @APIComponent
+    public int getAscent() {
+        return rasterizer.getAscent();
+    }
+
+    @APIComponent
+    public int getDescent() {
+        return rasterizer.getDescent();
+    }
+
+    @APIComponent
+    public int getLineHeight() {
+        return rasterizer.getLineHeight();
+    }
+
+    /**
+     * Rasterizes a range of characters up front, so that drawing them never has to.
+     * @param first First character to rasterize.
+     * @param last Last character to rasterize, inclusive.
+     */
+    @APIComponent
+    public synchronized void preload(final char first, final char last) {
+        for (int c = first; c <= last; c++)
+            getGlyph((char) c);
+    }
+
+    /**
+     * Measures the width of a string.
+     * @param text The text to measure.
+     * @return Sum of the advances of all characters, in pixels.
+     */
+    @APIComponent
+    public synchronized int getWidth(final CharSequence text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++)
+            width += getGlyph(text.charAt(i)).advance;
+        return width;
+    }
+
+    /**
+     * Gets the glyph of a character, rasterizing it if it is not cached yet.
+     * Must be called with the lock on this cache held.
+     */
+    Glyph getGlyph(final char c) {
+        if (c >= glyphs.length) {
+            int length = glyphs.length;
+            while (length <= c)
+                length <<= 1;
+
+            final Glyph[] grown = new Glyph[Math.min(length, Character.MAX_VALUE + 1)];
+            System.arraycopy(glyphs, 0, grown, 0, glyphs.length);
+            glyphs = grown;
+        }
+
+        Glyph glyph = glyphs[c];
+        if (glyph == null) {
+            glyph = rasterize(c);
+            glyphs[c] = glyph;
+        }
+
+        return glyph;
+    }
+
+    private Glyph rasterize(final char c) {
+        final GlyphRasterizer.Coverage coverage = rasterizer.rasterize(c);
+
+        final byte[] mask = new byte[coverage.data.length];
+        for (int i = 0; i < mask.length; i++)
+            mask[i] = (byte) ((coverage.data[i] & 0xFF) >= THRESHOLD ? 1 : 0);
+
+        return new Glyph(coverage.x, coverage.y, coverage.width, coverage.height, Math.round(coverage.advance),
+                         mask);
+    }
+
+    /**
+     * Rasterized character, positioned relative to the pen position on the baseline.
+     */
+    static final class Glyph {
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final int advance;
+
+        /**
+         * One byte per pixel, non-zero where the glyph is drawn.
+         */
+        final byte[] mask;
+
+        Glyph(final int x, final int y, final int width, final int height, final int advance, final byte[] mask) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.advance = advance;
+            this.mask = mask;
+        }
+    }
+}
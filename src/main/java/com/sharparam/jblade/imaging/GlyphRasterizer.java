@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * Rasterizes single characters of a font into 8-bit coverage, shared by {@link GlyphCache} and {@link GlyphAtlas}.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class GlyphRasterizer {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Font font;
+    private final FontRenderContext renderContext;
+    private final int ascent;
+    private final int descent;
+    private final int lineHeight;
+
+    GlyphRasterizer(final Font font) {
+        this.font = font;
+        renderContext = new FontRenderContext(null, true, true);
+
+        final BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        final Graphics2D graphics = scratch.createGraphics();
+        try {
+            final FontMetrics metrics = graphics.getFontMetrics(font);
+            ascent = metrics.getAscent();
+            descent = metrics.getDescent();
+            lineHeight = metrics.getHeight();
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    Font getFont() {
+        return font;
+    }
+
+    FontRenderContext getRenderContext() {
+        return renderContext;
+    }
+
+    int getAscent() {
+        return ascent;
+    }
+
+    int getDescent() {
+        return descent;
+    }
+
+    int getLineHeight() {
+        return lineHeight;
+    }
+
+    /**
+     * Rasterizes a character with antialiasing and fractional metrics.
+     * @param c The character to rasterize.
+     * @return Coverage of the character, positioned relative to the pen position on the baseline.
+     */
+    Coverage rasterize(final char c) {
+        final GlyphVector vector = font.createGlyphVector(renderContext, new char[] { c });
+        final float advance = vector.getGlyphMetrics(0).getAdvanceX();
+        final Rectangle bounds = vector.getPixelBounds(renderContext, 0, 0);
+
+        if (bounds.isEmpty())
+            return new Coverage(0, 0, 0, 0, advance, EMPTY);
+
+        final BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_BYTE_GRAY);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.setColor(Color.WHITE);
+            graphics.drawGlyphVector(vector, -bounds.x, -bounds.y);
+        } finally {
+            graphics.dispose();
+        }
+
+        // A new gray image is backed by exactly width * height bytes, one per pixel
+        final byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        return new Coverage(bounds.x, bounds.y, bounds.width, bounds.height, advance, data);
+    }
+
+    /**
+     * Coverage of a rasterized character, one byte per pixel from 0 (empty) to 255 (covered).
+     */
+    static final class Coverage {
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+
+        /**
+         * Advance in pixels, unrounded.
+         */
+        final float advance;
+
+        final byte[] data;
+
+        Coverage(final int x, final int y, final int width, final int height, final float advance,
+                 final byte[] data) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.advance = advance;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of images decoded to RGB565, bounded by the total size of the pixel data.
+ * Images are keyed by their file path and decoded the first time they are requested.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class ImageCache {
+    private final Logger log;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Rgb565Image> images;
+
+    private long currentBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a new image cache.
+     * @param maxBytes Maximum total size of cached pixel data, in bytes.
+     */
+    @APIComponent
+    public ImageCache(final long maxBytes) {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("maxBytes must be positive");
+
+        log = LogManager.getLogger();
+        this.maxBytes = maxBytes;
+        images = new LinkedHashMap<String, Rgb565Image>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets an image, decoding it from disk if it is not cached.
+     * @param path Path to the image file.
+     * @return The decoded image.
+     * @throws IOException If the file could not be read or is not a supported image format.
+     */
+    @APIComponent
+    public Rgb565Image get(final String path) throws IOException {
+        final String key = getKey(path);
+
+        synchronized (this) {
+            final Rgb565Image cached = images.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Decode outside of the lock, a concurrent miss on the same path at worst decodes twice
+        final Rgb565Image image = load(path);
+        put(key, image);
+        return image;
+    }
+
+    /**
+     * Gets the key an image file is cached under.
+     * @param path Path to the image file.
+     * @return The key, the path itself unless overridden.
+     */
+    protected String getKey(final String path) {
+        return path;
+    }
+
+    /**
+     * Decodes an image file on a cache miss.
+     * @param path Path to the image file.
+     * @return The decoded image.
+     * @throws IOException If the file could not be read or is not a supported image format.
+     */
+    protected Rgb565Image load(final String path) throws IOException {
+        log.debug("Decoding {}", path);
+        final BufferedImage decoded = ImageIO.read(new File(path));
+        if (decoded == null)
+            throw new IOException("Unsupported image format: " + path);
+
+        return Rgb565Image.fromImage(decoded);
+    }
+
+    /**
+     * Adds an already decoded image to the cache, replacing any image cached under the same key.
+     * Images larger than the cache itself are not stored.
+     * @param key Key of the image, usually its file path.
+     * @param image The image to cache.
+     */
+    @APIComponent
+    public synchronized void put(final String key, final Rgb565Image image) {
+        final Rgb565Image previous = images.remove(key);
+        if (previous != null)
+            currentBytes -= previous.getSizeInBytes();
+
+        if (image.getSizeInBytes() > maxBytes) {
+            log.warn("Image {} ({} bytes) is larger than the cache, not caching it", key, image.getSizeInBytes());
+            return;
+        }
+
+        images.put(key, image);
+        currentBytes += image.getSizeInBytes();
+
+        final Iterator<Map.Entry<String, Rgb565Image>> iterator = images.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            final Map.Entry<String, Rgb565Image> eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.getValue().getSizeInBytes();
+            evictions++;
+            log.debug("Evicted {}", eldest.getKey());
+        }
+    }
+
+    /**
+     * Checks whether an image is cached, without counting a hit or a miss.
+     * @param key Key of the image, usually its file path.
+     * @return True if the image is cached.
+     */
+    @APIComponent
+    public synchronized boolean contains(final String key) {
+        return images.containsKey(key);
+    }
+
+    /**
+     * Removes an image from the cache, it will be decoded again the next time it is requested.
+     * @param key Key of the image, usually its file path.
+     */
+    @APIComponent
+    public synchronized void invalidate(final String key) {
+        final Rgb565Image removed = images.remove(key);
+        if (removed != null)
+            currentBytes -= removed.getSizeInBytes();
+    }
+
+    /**
+     * Removes all images from the cache.
+     */
+    @APIComponent
+    public synchronized void invalidateAll() {
+        images.clear();
+        currentBytes = 0;
+    }
+
+    @APIComponent
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the total size of the cached pixel data.
+     * @return Size of cached images, in bytes.
+     */
+    @APIComponent
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    @APIComponent
+    public synchronized int getImageCount() {
+        return images.size();
+    }
+
+    @APIComponent
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    @APIComponent
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @APIComponent
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Reads a Motion JPEG file, a plain concatenation of JPEG images.
+ * Anything between two images, such as multipart boundaries from a captured HTTP stream, is skipped.
+ * The file carries no timing, so the frame rate is given when opening it.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class MjpegSource implements FrameSource {
+    private static final int MARKER = 0xFF;
+    private static final int SOI = 0xD8;
+    private static final int EOI = 0xD9;
+    private static final int SOS = 0xDA;
+    private static final int TEM = 0x01;
+    private static final int RST0 = 0xD0;
+    private static final int RST7 = 0xD7;
+
+    private final String path;
+    private final long frameInterval;
+
+    private InputStream input;
+    private int width;
+    private int height;
+
+    /**
+     * Bytes of the JPEG image being read, reused for every frame.
+     */
+    private byte[] data;
+    private int length;
+
+    /**
+     * Opens a Motion JPEG file, the size of the frames is taken from the first one.
+     * @param path Path to the file.
+     * @param fps Frames per second to play the file at.
+     * @throws IOException If the file could not be opened or does not start with a valid JPEG image.
+     */
+    @APIComponent
+    public MjpegSource(final String path, final double fps) throws IOException {
+        if (fps <= 0)
+            throw new IllegalArgumentException("fps must be positive");
+
+        this.path = path;
+        frameInterval = Math.round(1000000000 / fps);
+        data = new byte[64 * 1024];
+
+        input = open();
+
+        final BufferedImage first;
+        try {
+            first = nextImage();
+        } catch (final IOException ex) {
+            input.close();
+            throw ex;
+        }
+
+        if (first == null) {
+            input.close();
+            throw new IOException(path + " holds no JPEG images");
+        }
+
+        width = first.getWidth();
+        height = first.getHeight();
+        rewind();
+    }
+
+    @APIComponent
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    @APIComponent
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+
+    @Override
+    @APIComponent
+    public boolean read(final ByteBuffer dest) throws IOException {
+        final BufferedImage image = nextImage();
+        if (image == null)
+            return false;
+
+        if (image.getWidth() != width || image.getHeight() != height)
+            throw new IOException(String.format("%s has a %dx%d frame in a %dx%d sequence",
+                                                path, image.getWidth(), image.getHeight(), width, height));
+
+        dest.clear();
+        PixelConverter.convert(image, dest.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer());
+        return true;
+    }
+
+    @Override
+    @APIComponent
+    public void rewind() throws IOException {
+        input.close();
+        input = open();
+    }
+
+    @Override
+    @APIComponent
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private InputStream open() throws IOException {
+        return new BufferedInputStream(new FileInputStream(path), 64 * 1024);
+    }
+
+    private BufferedImage nextImage() throws IOException {
+        if (!readJpeg())
+            return null;
+
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(data, 0, length));
+        if (image == null)
+            throw new IOException(path + " has a frame that could not be decoded");
+
+        return image;
+    }
+
+    /**
+     * Reads the bytes of the next JPEG image into {@link #data}, following the segment structure
+     * so that markers inside embedded thumbnails don't end the image early.
+     * @return False if the end of the file was reached before another image started.
+     */
+    private boolean readJpeg() throws IOException {
+        length = 0;
+
+        // Skip to the start of the image
+        int previous = 0;
+        while (true) {
+            final int b = input.read();
+            if (b < 0)
+                return false;
+            if (previous == MARKER && b == SOI)
+                break;
+            previous = b;
+        }
+
+        append(MARKER);
+        append(SOI);
+
+        int marker = nextMarker();
+        while (true) {
+            append(MARKER);
+            append(marker);
+
+            if (marker == EOI)
+                return true;
+
+            if (marker == TEM || (marker >= RST0 && marker <= RST7)) {
+                marker = nextMarker();
+                continue;
+            }
+
+            final int high = readByte();
+            final int low = readByte();
+            append(high);
+            append(low);
+
+            final int segmentLength = (high << 8 | low) - 2;
+            if (segmentLength < 0)
+                throw new IOException(path + " has a corrupt JPEG segment");
+
+            ensureCapacity(length + segmentLength);
+            readFully(segmentLength);
+
+            marker = marker == SOS ? skipScan() : nextMarker();
+        }
+    }
+
+    /**
+     * Reads the entropy coded data following a start of scan segment.
+     * @return The marker ending the scan.
+     */
+    private int skipScan() throws IOException {
+        while (true) {
+            int b = readByte();
+            if (b != MARKER) {
+                append(b);
+                continue;
+            }
+
+            do {
+                b = readByte();
+            } while (b == MARKER);
+
+            // Stuffed zero bytes and restart markers are part of the scan
+            if (b == 0 || (b >= RST0 && b <= RST7)) {
+                append(MARKER);
+                append(b);
+                continue;
+            }
+
+            return b;
+        }
+    }
+
+    private int nextMarker() throws IOException {
+        if (readByte() != MARKER)
+            throw new IOException(path + " has a corrupt JPEG image");
+
+        int b;
+        do {
+            b = readByte();
+        } while (b == MARKER);
+
+        return b;
+    }
+
+    private int readByte() throws IOException {
+        final int b = input.read();
+        if (b < 0)
+            throw new EOFException(path + " ended in the middle of a frame");
+        return b;
+    }
+
+    private void readFully(final int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0) {
+            final int read = input.read(data, length, remaining);
+            if (read < 0)
+                throw new EOFException(path + " ended in the middle of a frame");
+
+            length += read;
+            remaining -= read;
+        }
+    }
+
+    private void append(final int b) {
+        ensureCapacity(length + 1);
+        data[length++] = (byte) b;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > data.length)
+            data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.ShortBuffer;
+
+/**
+ * Converts images to the RGB565 pixel format used by the SwitchBlade displays.
+ * The common image types are converted straight from their backing arrays,
+ * any other type goes through {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+ * Pixels with alpha are composited onto black, as the displays have no transparency.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public final class PixelConverter {
+    private PixelConverter() {
+    }
+
+    /**
+     * Checks whether an image type is converted straight from its backing array.
+     * @param type The image type, one of the BufferedImage.TYPE_ constants.
+     * @return True if the type has a fast path, false if it will be converted through getRGB.
+     */
+    @APIComponent
+    public static boolean isFastPath(final int type) {
+        switch (type) {
+            case BufferedImage.TYPE_USHORT_565_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_4BYTE_ABGR:
+            case BufferedImage.TYPE_BYTE_GRAY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Packs 8-bit color components into an RGB565 pixel.
+     * @param r Red component, 0-255.
+     * @param g Green component, 0-255.
+     * @param b Blue component, 0-255.
+     * @return The RGB565 pixel.
+     */
+    @APIComponent
+    public static short toRgb565(final int r, final int g, final int b) {
+        return (short) (((r & 0xF8) << 8) | ((g & 0xFC) << 3) | (b >>> 3));
+    }
+
+    /**
+     * Converts an ARGB pixel to RGB565, compositing it onto black.
+     * @param argb The ARGB pixel.
+     * @return The RGB565 pixel.
+     */
+    @APIComponent
+    public static short toRgb565(final int argb) {
+        final int a = argb >>> 24;
+        if (a == 0xFF)
+            return toRgb565((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+
+        return toRgb565(blend((argb >> 16) & 0xFF, a), blend((argb >> 8) & 0xFF, a), blend(argb & 0xFF, a));
+    }
+
+    /**
+     * Expands an RGB565 pixel to opaque ARGB.
+     * @param pixel The RGB565 pixel.
+     * @return The ARGB pixel.
+     */
+    @APIComponent
+    public static int toArgb(final short pixel) {
+        final int r = (pixel >> 11) & 0x1F;
+        final int g = (pixel >> 5) & 0x3F;
+        final int b = pixel & 0x1F;
+        return 0xFF000000 | ((r << 3 | r >> 2) << 16) | ((g << 2 | g >> 4) << 8) | (b << 3 | b >> 2);
+    }
+
+    /**
+     * Converts a whole image into an RGB565 buffer laid out row after row without padding, dithering it.
+     * @param image The image to convert.
+     * @param dest Buffer to write to, must hold at least width * height pixels after its position.
+     * @param mode How to dither the image.
+     */
+    @APIComponent
+    public static void convert(final BufferedImage image, final ShortBuffer dest, final DitherMode mode) {
+        convert(image, 0, 0, image.getWidth(), image.getHeight(), dest, dest.position(), image.getWidth(), mode);
+    }
+
+    /**
+     * Converts a region of an image into an RGB565 buffer, dithering it.
+     * Dithered conversions are split into horizontal stripes converted in parallel on the common fork/join pool.
+     * Images that already are RGB565 are copied as they are.
+     * The position of the destination buffer is not changed.
+     * @param image The image to convert.
+     * @param x X position of the region in the image.
+     * @param y Y position of the region in the image.
+     * @param width Width of the region.
+     * @param height Height of the region.
+     * @param dest Buffer to write to.
+     * @param destOffset Index in dest to write the top left pixel of the region to.
+     * @param destStride Number of pixels between the start of two rows in dest.
+     * @param mode How to dither the image.
+     */
+    @APIComponent
+    public static void convert(final BufferedImage image, final int x, final int y, final int width, final int height,
+                               final ShortBuffer dest, final int destOffset, final int destStride,
+                               final DitherMode mode) {
+        if (mode == DitherMode.NONE || image.getType() == BufferedImage.TYPE_USHORT_565_RGB) {
+            convert(image, x, y, width, height, dest, destOffset, destStride);
+            return;
+        }
+
+        if (x < 0 || y < 0 || x + width > image.getWidth() || y + height > image.getHeight())
+            throw new IllegalArgumentException("Region is outside of the image");
+
+        Ditherer.convert(image, x, y, width, height, dest, destOffset, destStride, mode);
+    }
+
+    /**
+     * Converts a whole image into an RGB565 buffer laid out row after row without padding.
+     * @param image The image to convert.
+     * @param dest Buffer to write to, must hold at least width * height pixels after its position.
+     */
+    @APIComponent
+    public static void convert(final BufferedImage image, final ShortBuffer dest) {
+        convert(image, 0, 0, image.getWidth(), image.getHeight(), dest, dest.position(), image.getWidth());
+    }
+
+    /**
+     * Converts a region of an image into an RGB565 buffer.
+     * The position of the destination buffer is not changed.
+     * @param image The image to convert.
+     * @param x X position of the region in the image.
+     * @param y Y position of the region in the image.
+     * @param width Width of the region.
+     * @param height Height of the region.
+     * @param dest Buffer to write to.
+     * @param destOffset Index in dest to write the top left pixel of the region to.
+     * @param destStride Number of pixels between the start of two rows in dest.
+     */
+    @APIComponent
+    public static void convert(final BufferedImage image, final int x, final int y, final int width, final int height,
+                               final ShortBuffer dest, final int destOffset, final int destStride) {
+        if (x < 0 || y < 0 || x + width > image.getWidth() || y + height > image.getHeight())
+            throw new IllegalArgumentException("Region is outside of the image");
+
+        switch (image.getType()) {
+            case BufferedImage.TYPE_USHORT_565_RGB:
+                convertUShort565(image.getRaster(), x, y, width, height, dest, destOffset, destStride);
+                break;
+            case BufferedImage.TYPE_INT_ARGB:
+                convertInt(image.getRaster(), x, y, width, height, dest, destOffset, destStride, true);
+                break;
+            case BufferedImage.TYPE_INT_RGB:
+                convertInt(image.getRaster(), x, y, width, height, dest, destOffset, destStride, false);
+                break;
+            case BufferedImage.TYPE_3BYTE_BGR:
+                convertByte(image.getRaster(), x, y, width, height, dest, destOffset, destStride, false);
+                break;
+            case BufferedImage.TYPE_4BYTE_ABGR:
+                convertByte(image.getRaster(), x, y, width, height, dest, destOffset, destStride, true);
+                break;
+            case BufferedImage.TYPE_BYTE_GRAY:
+                convertGray(image.getRaster(), x, y, width, height, dest, destOffset, destStride);
+                break;
+            default:
+                convertGeneric(image, x, y, width, height, dest, destOffset, destStride);
+                break;
+        }
+    }
+
+    /**
+     * Multiplies a color component with an alpha value, both 0-255.
+     */
+    static int blend(final int component, final int alpha) {
+        final int t = component * alpha + 128;
+        return (t + (t >> 8)) >> 8;
+    }
+
+    private static void convertUShort565(final Raster raster, final int x, final int y, final int width,
+                                         final int height, final ShortBuffer dest, final int destOffset,
+                                         final int destStride) {
+        final SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        final DataBufferUShort dataBuffer = (DataBufferUShort) raster.getDataBuffer();
+        final short[] data = dataBuffer.getData();
+        final int stride = sampleModel.getScanlineStride();
+        final int start = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * stride
+                + x - raster.getSampleModelTranslateX();
+
+        final ShortBuffer out = dest.duplicate();
+
+        if (stride == width && destStride == width) {
+            out.position(destOffset);
+            out.put(data, start, width * height);
+            return;
+        }
+
+        for (int row = 0; row < height; row++) {
+            out.position(destOffset + row * destStride);
+            out.put(data, start + row * stride, width);
+        }
+    }
+
+    private static void convertInt(final Raster raster, final int x, final int y, final int width, final int height,
+                                   final ShortBuffer dest, final int destOffset, final int destStride,
+                                   final boolean alpha) {
+        final SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        final DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+        final int[] data = dataBuffer.getData();
+        final int stride = sampleModel.getScanlineStride();
+        final int start = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * stride
+                + x - raster.getSampleModelTranslateX();
+
+        for (int row = 0; row < height; row++) {
+            int src = start + row * stride;
+            int out = destOffset + row * destStride;
+            final int end = src + width;
+
+            if (alpha) {
+                for (; src < end; src++, out++)
+                    dest.put(out, toRgb565(data[src]));
+            } else {
+                for (; src < end; src++, out++) {
+                    final int rgb = data[src];
+                    dest.put(out, (short) (((rgb >> 8) & 0xF800) | ((rgb >> 5) & 0x07E0) | ((rgb >> 3) & 0x001F)));
+                }
+            }
+        }
+    }
+
+    private static void convertByte(final Raster raster, final int x, final int y, final int width, final int height,
+                                    final ShortBuffer dest, final int destOffset, final int destStride,
+                                    final boolean alpha) {
+        final ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+        final DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+        final byte[] data = dataBuffer.getData();
+        final int stride = sampleModel.getScanlineStride();
+        final int pixelStride = sampleModel.getPixelStride();
+        final int[] bandOffsets = sampleModel.getBandOffsets();
+        final int rOffset = bandOffsets[0];
+        final int gOffset = bandOffsets[1];
+        final int bOffset = bandOffsets[2];
+        final int aOffset = alpha ? bandOffsets[3] : 0;
+        final int start = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * stride
+                + (x - raster.getSampleModelTranslateX()) * pixelStride;
+
+        for (int row = 0; row < height; row++) {
+            int src = start + row * stride;
+            int out = destOffset + row * destStride;
+            final int end = out + width;
+
+            for (; out < end; src += pixelStride, out++) {
+                int r = data[src + rOffset] & 0xFF;
+                int g = data[src + gOffset] & 0xFF;
+                int b = data[src + bOffset] & 0xFF;
+
+                if (alpha) {
+                    final int a = data[src + aOffset] & 0xFF;
+                    if (a != 0xFF) {
+                        r = blend(r, a);
+                        g = blend(g, a);
+                        b = blend(b, a);
+                    }
+                }
+
+                dest.put(out, toRgb565(r, g, b));
+            }
+        }
+    }
+
+    private static void convertGray(final Raster raster, final int x, final int y, final int width, final int height,
+                                    final ShortBuffer dest, final int destOffset, final int destStride) {
+        final ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+        final DataBufferByte dataBuffer = (DataBufferByte) raster.getDataBuffer();
+        final byte[] data = dataBuffer.getData();
+        final int stride = sampleModel.getScanlineStride();
+        final int pixelStride = sampleModel.getPixelStride();
+        final int start = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * stride
+                + (x - raster.getSampleModelTranslateX()) * pixelStride + sampleModel.getBandOffsets()[0];
+
+        for (int row = 0; row < height; row++) {
+            int src = start + row * stride;
+            int out = destOffset + row * destStride;
+            final int end = out + width;
+
+            for (; out < end; src += pixelStride, out++) {
+                final int v = data[src] & 0xFF;
+                dest.put(out, toRgb565(v, v, v));
+            }
+        }
+    }
+
+    private static void convertGeneric(final BufferedImage image, final int x, final int y, final int width,
+                                       final int height, final ShortBuffer dest, final int destOffset,
+                                       final int destStride) {
+        final int[] row = new int[width];
+
+        for (int r = 0; r < height; r++) {
+            image.getRGB(x, y + r, width, 1, row, 0, width);
+            final int out = destOffset + r * destStride;
+            for (int i = 0; i < width; i++)
+                dest.put(out + i, toRgb565(row[i]));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings of an {@link AssetPreloader} run, times are in nanoseconds since the preloader was created.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class PreloadReport {
+    private final List<Asset> assets;
+    private final long totalNanos;
+    private final int parallelism;
+
+    PreloadReport(final List<Asset> assets, final long totalNanos, final int parallelism) {
+        this.assets = Collections.unmodifiableList(new ArrayList<Asset>(assets));
+        this.totalNanos = totalNanos;
+        this.parallelism = parallelism;
+    }
+
+    @APIComponent
+    public List<Asset> getAssets() {
+        return assets;
+    }
+
+    /**
+     * Gets the wall clock time from creating the preloader until every image was loaded.
+     * @return Total time, in nanoseconds.
+     */
+    @APIComponent
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Gets the time the images took added together, what loading them one after another would have cost.
+     * @return Sum of the load times, in nanoseconds.
+     */
+    @APIComponent
+    public long getSerialNanos() {
+        long sum = 0;
+        for (final Asset asset : assets)
+            sum += asset.getLoadNanos();
+        return sum;
+    }
+
+    @APIComponent
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @APIComponent
+    public List<Asset> getFailures() {
+        final List<Asset> failures = new ArrayList<Asset>();
+        for (final Asset asset : assets) {
+            if (asset.getError() != null)
+                failures.add(asset);
+        }
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d images in %d ms on %d threads (%d ms serial), %d failed",
+                             assets.size(), TimeUnit.NANOSECONDS.toMillis(totalNanos), parallelism,
+                             TimeUnit.NANOSECONDS.toMillis(getSerialNanos()), getFailures().size());
+    }
+
+    /**
+     * Timing of one preloaded image.
+     */
+    public static class Asset {
+        private final String path;
+        private final int width;
+        private final int height;
+
+        volatile long started;
+        volatile long finished;
+        volatile IOException error;
+
+        Asset(final String path, final int width, final int height) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+        }
+
+        @APIComponent
+        public String getPath() {
+            return path;
+        }
+
+        @APIComponent
+        public int getWidth() {
+            return width;
+        }
+
+        @APIComponent
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Gets when loading the image started.
+         * @return Nanoseconds after the preloader was created.
+         */
+        @APIComponent
+        public long getStartNanos() {
+            return started;
+        }
+
+        /**
+         * Gets when the image was ready.
+         * @return Nanoseconds after the preloader was created.
+         */
+        @APIComponent
+        public long getReadyNanos() {
+            return finished;
+        }
+
+        /**
+         * Gets the time spent decoding, resampling and converting the image.
+         * @return Load time, in nanoseconds.
+         */
+        @APIComponent
+        public long getLoadNanos() {
+            return finished - started;
+        }
+
+        /**
+         * Gets the error that made loading fail.
+         * @return The error, or null if the image was loaded.
+         */
+        @APIComponent
+        public IOException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%dx%d): %s after %d ms, took %d ms", path, width, height,
+                                 error == null ? "ready" : "failed",
+                                 TimeUnit.NANOSECONDS.toMillis(finished),
+                                 TimeUnit.NANOSECONDS.toMillis(getLoadNanos()));
+        }
+    }
+}
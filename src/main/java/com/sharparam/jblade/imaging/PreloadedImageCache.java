@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Scaled image cache filled in the background by an {@link AssetPreloader}.
+ * Getting an image that is still being preloaded waits for that image only, not for the rest of the set.
+ * Once an image has been preloaded it is an ordinary cache entry, subject to the size bound and eviction.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class PreloadedImageCache extends ScaledImageCache {
+    private final Map<String, Future<Rgb565Image>> pending;
+
+    PreloadedImageCache(final long maxBytes, final int width, final int height, final Resampler.Fit fit) {
+        super(maxBytes, width, height, fit);
+        pending = new ConcurrentHashMap<String, Future<Rgb565Image>>();
+    }
+
+    void addPending(final String path, final Future<Rgb565Image> future) {
+        pending.put(path, future);
+    }
+
+    /**
+     * Forgets a finished preload, so the cache itself is the only thing holding on to the image.
+     */
+    void removePending(final String path, final Future<Rgb565Image> future) {
+        pending.remove(path, future);
+    }
+
+    /**
+     * Gets whether an image has finished preloading, successfully or not.
+     * @param path Path to the image file.
+     * @return True if the image is not being preloaded (anymore).
+     */
+    @APIComponent
+    public boolean isReady(final String path) {
+        final Future<Rgb565Image> future = pending.get(path);
+        return future == null || future.isDone();
+    }
+
+    @Override
+    protected Rgb565Image load(final String path) throws IOException {
+        final Future<Rgb565Image> future = pending.get(path);
+        if (future == null)
+            return super.load(path);
+
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + path + " to preload", ex);
+        } catch (final ExecutionException ex) {
+            // Preloading failed, try once more on this thread so the caller gets the actual error
+            pending.remove(path, future);
+            return super.load(path);
+        } catch (final CancellationException ex) {
+            // The preloader was shut down before getting to this image
+            pending.remove(path, future);
+            return super.load(path);
+        }
+    }
+
+    /**
+     * Loads an image on a preloader thread, the result is put in the cache as it would be on a miss.
+     */
+    Rgb565Image preload(final String path) throws IOException {
+        final Rgb565Image image = super.load(path);
+        put(getKey(path), image);
+        return image;
+    }
+}
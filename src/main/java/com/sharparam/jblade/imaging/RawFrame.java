@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads and writes raw RGB565 frames, which can be memory mapped and drawn without decoding.
+ * A raw frame file consists of a {@value #HEADER_SIZE} byte header followed by the pixels, row after row:
+ * <pre>
+ * offset  size  contents
+ *      0     4  magic, the ASCII characters "R565"
+ *      4     2  format version, currently 1
+ *      6     2  width in pixels
+ *      8     2  height in pixels
+ *     10     6  reserved, zero
+ *     16     *  width * height pixels
+ * </pre>
+ * All values, including the pixels, are little-endian.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public final class RawFrame {
+    /**
+     * Size of the header preceding the pixel data, in bytes.
+     */
+    @APIComponent
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * Magic number identifying a raw frame file, "R565" read as a little-endian int.
+     */
+    @APIComponent
+    public static final int MAGIC = 'R' | '5' << 8 | '6' << 16 | '5' << 24;
+
+    /**
+     * Current version of the format.
+     */
+    @APIComponent
+    public static final int VERSION = 1;
+
+    private RawFrame() {
+    }
+
+    /**
+     * Memory maps a raw frame file.
+     * The returned image reads its pixels straight from the mapping, nothing is copied onto the heap.
+     * @param path Path to the raw frame file.
+     * @return Image backed by the mapped file.
+     * @throws IOException If the file could not be mapped or is not a valid raw frame.
+     */
+    @APIComponent
+    public static Rgb565Image map(final String path) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "r");
+        final MappedByteBuffer buffer;
+
+        try {
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+        } finally {
+            file.close();
+        }
+
+        return read(buffer, path);
+    }
+
+    /**
+     * Reads a raw frame from a buffer, the pixels of the returned image are a view into the buffer.
+     * @param buffer Buffer holding a raw frame from its position.
+     * @param name Name of the frame, used in error messages.
+     * @return Image backed by the buffer.
+     * @throws IOException If the buffer does not hold a valid raw frame.
+     */
+    static Rgb565Image read(final ByteBuffer buffer, final String name) throws IOException {
+        final ByteBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC)
+            throw new IOException(name + " is not a raw frame");
+
+        final int version = data.getShort(4) & 0xFFFF;
+        if (version != VERSION)
+            throw new IOException(String.format("%s has unsupported raw frame version %d", name, version));
+
+        final int width = data.getShort(6) & 0xFFFF;
+        final int height = data.getShort(8) & 0xFFFF;
+        final int size = width * height * 2;
+
+        if (width == 0 || height == 0 || data.remaining() - HEADER_SIZE < size)
+            throw new IOException(String.format("%s is truncated, expected %d bytes of %dx%d pixel data",
+                                                name, size, width, height));
+
+        data.position(HEADER_SIZE);
+        data.limit(HEADER_SIZE + size);
+        final ShortBuffer pixels = data.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+
+        return new Rgb565Image(width, height, pixels);
+    }
+
+    /**
+     * Writes an image as a raw frame.
+     * @param image The image to write.
+     * @param path Path of the file to write.
+     * @throws IOException If the file could not be written.
+     */
+    @APIComponent
+    public static void write(final Rgb565Image image, final String path) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+
+        try {
+            final FileChannel channel = file.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate(getFileSize(image.getWidth(), image.getHeight()))
+                                                .order(ByteOrder.LITTLE_ENDIAN);
+            encode(image, buffer);
+            buffer.flip();
+
+            file.setLength(0);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Writes an image as a raw frame, converting it to RGB565.
+     * @param image The image to write.
+     * @param path Path of the file to write.
+     * @throws IOException If the file could not be written.
+     */
+    @APIComponent
+    public static void write(final BufferedImage image, final String path) throws IOException {
+        write(Rgb565Image.fromImage(image), path);
+    }
+
+    /**
+     * Converts an image file in any format supported by ImageIO to a raw frame.
+     * @param imagePath Path to the source image.
+     * @param rawPath Path of the raw frame file to write.
+     * @throws IOException If the source could not be read or the raw frame could not be written.
+     */
+    @APIComponent
+    public static void convert(final String imagePath, final String rawPath) throws IOException {
+        final BufferedImage image = ImageIO.read(new File(imagePath));
+        if (image == null)
+            throw new IOException("Unsupported image format: " + imagePath);
+
+        write(image, rawPath);
+    }
+
+    /**
+     * Gets the size of a raw frame.
+     * @param width Width of the frame.
+     * @param height Height of the frame.
+     * @return Size of the frame including its header, in bytes.
+     */
+    @APIComponent
+    public static int getFileSize(final int width, final int height) {
+        return HEADER_SIZE + width * height * 2;
+    }
+
+    /**
+     * Encodes an image as a raw frame into a buffer, starting at its position.
+     * @param image The image to encode.
+     * @param buffer Buffer to write to, must have {@link #getFileSize(int, int)} bytes remaining.
+     */
+    static void encode(final Rgb565Image image, final ByteBuffer buffer) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+
+        if (width > 0xFFFF || height > 0xFFFF)
+            throw new IllegalArgumentException("Raw frames can be at most 65535 pixels wide and high");
+
+        final ByteBuffer out = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) width);
+        out.putShort((short) height);
+        out.put(new byte[HEADER_SIZE - 10]);
+
+        final ShortBuffer pixels = image.getPixels();
+        final int stride = image.getStride();
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                out.putShort(pixels.get(y * stride + x));
+        }
+    }
+}
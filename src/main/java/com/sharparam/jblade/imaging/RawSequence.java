@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a file of uncompressed RGB565 frames, see {@link RawSequenceWriter} for the layout.
+ * Frames are read straight from the file into the destination buffer, nothing is kept in memory between frames.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RawSequence implements FrameSource {
+    /**
+     * Magic number identifying a raw sequence, "R5SQ" read as a little-endian int.
+     */
+    @APIComponent
+    public static final int MAGIC = 'R' | '5' << 8 | 'S' << 16 | 'Q' << 24;
+
+    @APIComponent
+    public static final int VERSION = 1;
+
+    @APIComponent
+    public static final int HEADER_SIZE = 16;
+
+    private final String path;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private final int width;
+    private final int height;
+    private final int frameSize;
+    private final long frameInterval;
+    private final long frameCount;
+
+    private long position;
+
+    private RawSequence(final String path, final RandomAccessFile file) throws IOException {
+        this.path = path;
+        this.file = file;
+        channel = file.getChannel();
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0)
+                throw new IOException(path + " is not a raw sequence");
+        }
+
+        if (header.getInt(0) != MAGIC)
+            throw new IOException(path + " is not a raw sequence");
+
+        final int version = header.getShort(4) & 0xFFFF;
+        if (version != VERSION)
+            throw new IOException(String.format("%s has unsupported raw sequence version %d", path, version));
+
+        width = header.getShort(6) & 0xFFFF;
+        height = header.getShort(8) & 0xFFFF;
+        frameInterval = (header.getInt(12) & 0xFFFFFFFFL) * 1000;
+        frameSize = width * height * 2;
+
+        if (width == 0 || height == 0 || frameInterval == 0)
+            throw new IOException(path + " has a corrupt header");
+
+        frameCount = (channel.size() - HEADER_SIZE) / frameSize;
+        position = HEADER_SIZE;
+    }
+
+    /**
+     * Opens a raw sequence.
+     * @param path Path to the sequence file.
+     * @return The opened sequence, positioned at the first frame.
+     * @throws IOException If the file could not be opened or is not a raw sequence.
+     */
+    @APIComponent
+    public static RawSequence open(final String path) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "r");
+
+        try {
+            return new RawSequence(path, file);
+        } catch (final IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    @APIComponent
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    @APIComponent
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+
+    /**
+     * Gets the number of complete frames in the file, a truncated last frame is not counted.
+     * @return Number of frames.
+     */
+    @APIComponent
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    @APIComponent
+    public boolean read(final ByteBuffer dest) throws IOException {
+        if ((position - HEADER_SIZE) / frameSize >= frameCount)
+            return false;
+
+        dest.clear();
+        dest.limit(frameSize);
+
+        while (dest.hasRemaining()) {
+            final int read = channel.read(dest, position);
+            if (read < 0)
+                throw new IOException(path + " ended in the middle of a frame");
+
+            position += read;
+        }
+
+        return true;
+    }
+
+    @Override
+    @APIComponent
+    public void rewind() {
+        position = HEADER_SIZE;
+    }
+
+    @Override
+    @APIComponent
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a file of uncompressed RGB565 frames to be played back with {@link RawSequence}.
+ * <p>
+ * Layout, all values little-endian:
+ * <pre>
+ * offset  size  contents
+ *      0     4  magic, the ASCII characters "R5SQ"
+ *      4     2  format version, currently 1
+ *      6     2  width
+ *      8     2  height
+ *     10     2  reserved, zero
+ *     12     4  frame interval in microseconds
+ *     16     *  frames, width * height 16-bit RGB565 pixels each, row by row
+ * </pre>
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RawSequenceWriter implements Closeable {
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final ByteBuffer frame;
+
+    private long frameCount;
+
+    /**
+     * Creates a raw sequence file, replacing any existing file.
+     * @param path Path of the file to write.
+     * @param width Width of the frames.
+     * @param height Height of the frames.
+     * @param frameInterval Time each frame is shown.
+     * @param unit Unit of the frame interval.
+     * @throws IOException If the file could not be created.
+     */
+    @APIComponent
+    public RawSequenceWriter(final String path, final int width, final int height, final long frameInterval,
+                             final TimeUnit unit) throws IOException {
+        final long micros = unit.toMicros(frameInterval);
+
+        if (width <= 0 || height <= 0 || width > 0xFFFF || height > 0xFFFF)
+            throw new IllegalArgumentException("Width and height must be between 1 and 65535");
+        if (micros <= 0 || micros > 0xFFFFFFFFL)
+            throw new IllegalArgumentException("Frame interval must be between 1 microsecond and about 71 minutes");
+
+        this.width = width;
+        this.height = height;
+        frame = ByteBuffer.allocateDirect(width * height * 2).order(ByteOrder.LITTLE_ENDIAN);
+
+        file = new RandomAccessFile(path, "rw");
+        channel = file.getChannel();
+
+        try {
+            file.setLength(0);
+
+            final ByteBuffer header = ByteBuffer.allocate(RawSequence.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(RawSequence.MAGIC);
+            header.putShort((short) RawSequence.VERSION);
+            header.putShort((short) width);
+            header.putShort((short) height);
+            header.putShort((short) 0);
+            header.putInt((int) micros);
+            header.flip();
+            writeFully(header);
+        } catch (final IOException ex) {
+            file.close();
+            throw ex;
+        }
+    }
+
+    @APIComponent
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Appends a frame.
+     * @param image The frame, must match the size of the sequence.
+     * @throws IOException If the frame could not be written.
+     */
+    @APIComponent
+    public void write(final Rgb565Image image) throws IOException {
+        checkSize(image.getWidth(), image.getHeight());
+
+        final ShortBuffer pixels = image.pixelBuffer();
+        final int stride = image.getStride();
+
+        frame.clear();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                frame.putShort(pixels.get(y * stride + x));
+        }
+        frame.flip();
+
+        writeFully(frame);
+        frameCount++;
+    }
+
+    /**
+     * Appends a frame, converting it to RGB565.
+     * @param image The frame, must match the size of the sequence.
+     * @throws IOException If the frame could not be written.
+     */
+    @APIComponent
+    public void write(final BufferedImage image) throws IOException {
+        checkSize(image.getWidth(), image.getHeight());
+
+        frame.clear();
+        PixelConverter.convert(image, frame.asShortBuffer());
+        writeFully(frame);
+        frameCount++;
+    }
+
+    @Override
+    @APIComponent
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private void checkSize(final int width, final int height) {
+        if (width != this.width || height != this.height)
+            throw new IllegalArgumentException(String.format("Frame needs to be %dx%d, was %dx%d",
+                                                             this.width, this.height, width, height));
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
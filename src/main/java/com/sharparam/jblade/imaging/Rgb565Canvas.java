@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Draws straight into an RGB565 image, for simple UIs that don't need Swing.
+ * All operations are clipped to the clip rectangle, which defaults to the whole image,
+ * and once the canvas is created none of them allocate (glyphs are rasterized the first time they are drawn).
+ * Colors are RGB565 values, see {@link PixelConverter#toRgb565(int, int, int)}.
+ * <p>
+ * A canvas is not thread safe.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class Rgb565Canvas {
+    private final Rgb565Image image;
+    private final ShortBuffer pixels;
+    private final int width;
+    private final int height;
+    private final int stride;
+
+    /**
+     * One row of the last fill color, bulk copied by {@link #fillRect(int, int, int, int, short)}.
+     */
+    private final short[] fillRow;
+    private short fillColor;
+
+    private int clipX;
+    private int clipY;
+    private int clipRight;
+    private int clipBottom;
+
+    /**
+     * Creates a canvas drawing into an image.
+     * @param image The image to draw into.
+     */
+    @APIComponent
+    public Rgb565Canvas(final Rgb565Image image) {
+        this.image = image;
+        pixels = image.getPixels();
+        width = image.getWidth();
+        height = image.getHeight();
+        stride = image.getStride();
+
+        fillRow = new short[width];
+
+        resetClip();
+    }
+
+    @APIComponent
+    public Rgb565Image getImage() {
+        return image;
+    }
+
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Limits drawing to a rectangle, it is intersected with the bounds of the image.
+     * @param x Left edge of the clip rectangle.
+     * @param y Top edge of the clip rectangle.
+     * @param width Width of the clip rectangle.
+     * @param height Height of the clip rectangle.
+     */
+    @APIComponent
+    public void setClip(final int x, final int y, final int width, final int height) {
+        clipX = Math.max(x, 0);
+        clipY = Math.max(y, 0);
+        clipRight = Math.min(x + width, this.width);
+        clipBottom = Math.min(y + height, this.height);
+    }
+
+    @APIComponent
+    public void resetClip() {
+        setClip(0, 0, width, height);
+    }
+
+    /**
+     * Fills the clip rectangle with a color.
+     * @param color The color.
+     */
+    @APIComponent
+    public void clear(final short color) {
+        fillRect(clipX, clipY, clipRight - clipX, clipBottom - clipY, color);
+    }
+
+    @APIComponent
+    public void setPixel(final int x, final int y, final short color) {
+        if (x >= clipX && x < clipRight && y >= clipY && y < clipBottom)
+            pixels.put(y * stride + x, color);
+    }
+
+    @APIComponent
+    public short getPixel(final int x, final int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            throw new IndexOutOfBoundsException(String.format("(%d, %d) is outside of the canvas", x, y));
+
+        return pixels.get(y * stride + x);
+    }
+
+    /**
+     * Fills a rectangle with a color.
+     * @param x Left edge of the rectangle.
+     * @param y Top edge of the rectangle.
+     * @param width Width of the rectangle.
+     * @param height Height of the rectangle.
+     * @param color The color.
+     */
+    @APIComponent
+    public void fillRect(final int x, final int y, final int width, final int height, final short color) {
+        final int left = Math.max(x, clipX);
+        final int top = Math.max(y, clipY);
+        final int right = Math.min(x + width, clipRight);
+        final int bottom = Math.min(y + height, clipBottom);
+
+        if (left >= right || top >= bottom)
+            return;
+
+        if (color != fillColor) {
+            Arrays.fill(fillRow, color);
+            fillColor = color;
+        }
+
+        final int length = right - left;
+        for (int row = top; row < bottom; row++) {
+            pixels.position(row * stride + left);
+            pixels.put(fillRow, 0, length);
+        }
+    }
+
+    /**
+     * Draws the outline of a rectangle, one pixel wide.
+     * @param x Left edge of the rectangle.
+     * @param y Top edge of the rectangle.
+     * @param width Width of the rectangle.
+     * @param height Height of the rectangle.
+     * @param color The color.
+     */
+    @APIComponent
+    public void drawRect(final int x, final int y, final int width, final int height, final short color) {
+        if (width <= 0 || height <= 0)
+            return;
+
+        fillRect(x, y, width, 1, color);
+        fillRect(x, y + height - 1, width, 1, color);
+        fillRect(x, y + 1, 1, height - 2, color);
+        fillRect(x + width - 1, y + 1, 1, height - 2, color);
+    }
+
+    /**
+     * Draws a one pixel wide line between two points, both included.
+     * @param x0 X coordinate of the first point.
+     * @param y0 Y coordinate of the first point.
+     * @param x1 X coordinate of the second point.
+     * @param y1 Y coordinate of the second point.
+     * @param color The color.
+     */
+    @APIComponent
+    public void drawLine(int x0, int y0, final int x1, final int y1, final short color) {
+        if (y0 == y1) {
+            fillRect(Math.min(x0, x1), y0, Math.abs(x1 - x0) + 1, 1, color);
+            return;
+        }
+
+        if (x0 == x1) {
+            fillRect(x0, Math.min(y0, y1), 1, Math.abs(y1 - y0) + 1, color);
+            return;
+        }
+
+        // Bresenham
+        final int dx = Math.abs(x1 - x0);
+        final int dy = -Math.abs(y1 - y0);
+        final int sx = x0 < x1 ? 1 : -1;
+        final int sy = y0 < y1 ? 1 : -1;
+        int error = dx + dy;
+
+        while (true) {
+            setPixel(x0, y0, color);
+
+            if (x0 == x1 && y0 == y1)
+                break;
+
+            final int e2 = 2 * error;
+            if (e2 >= dy) {
+                error += dy;
+                x0 += sx;
+            }
+            if (e2 <= dx) {
+                error += dx;
+                y0 += sy;
+            }
+        }
+    }
+
+    /**
+     * Copies an image onto the canvas.
+     * @param source The image to copy.
+     * @param x Left edge of the destination.
+     * @param y Top edge of the destination.
+     */
+    @APIComponent
+    public void blit(final Rgb565Image source, final int x, final int y) {
+        blit(source, 0, 0, source.getWidth(), source.getHeight(), x, y);
+    }
+
+    /**
+     * Copies part of an image onto the canvas.
+     * @param source The image to copy from.
+     * @param sourceX Left edge of the part to copy.
+     * @param sourceY Top edge of the part to copy.
+     * @param width Width of the part to copy.
+     * @param height Height of the part to copy.
+     * @param x Left edge of the destination.
+     * @param y Top edge of the destination.
+     */
+    @APIComponent
+    public void blit(final Rgb565Image source, int sourceX, int sourceY, int width, int height, int x, int y) {
+        // Clip the source rectangle against the source image
+        if (sourceX < 0) {
+            width += sourceX;
+            x -= sourceX;
+            sourceX = 0;
+        }
+        if (sourceY < 0) {
+            height += sourceY;
+            y -= sourceY;
+            sourceY = 0;
+        }
+        width = Math.min(width, source.getWidth() - sourceX);
+        height = Math.min(height, source.getHeight() - sourceY);
+
+        // Then the destination against the clip rectangle
+        if (x < clipX) {
+            width -= clipX - x;
+            sourceX += clipX - x;
+            x = clipX;
+        }
+        if (y < clipY) {
+            height -= clipY - y;
+            sourceY += clipY - y;
+            y = clipY;
+        }
+        width = Math.min(width, clipRight - x);
+        height = Math.min(height, clipBottom - y);
+
+        if (width <= 0 || height <= 0)
+            return;
+
+        final ShortBuffer src = source.pixelBuffer();
+        final int sourceStride = source.getStride();
+
+        for (int row = 0; row < height; row++) {
+            final int from = (sourceY + row) * sourceStride + sourceX;
+            final int to = (y + row) * stride + x;
+            for (int col = 0; col < width; col++)
+                pixels.put(to + col, src.get(from + col));
+        }
+    }
+
+    /**
+     * Draws solid text, characters missing from the cache are rasterized first.
+     * @param glyphs Glyph cache of the font to draw with.
+     * @param text The text, a StringBuilder can be reused between frames to avoid allocating strings.
+     * @param x Left edge of the text.
+     * @param y Baseline of the text.
+     * @param color The color.
+     * @return The x coordinate after the last character.
+     */
+    @APIComponent
+    public int drawText(final GlyphCache glyphs, final CharSequence text, int x, final int y, final short color) {
+        synchronized (glyphs) {
+            for (int i = 0; i < text.length(); i++) {
+                final GlyphCache.Glyph glyph = glyphs.getGlyph(text.charAt(i));
+                drawMask(glyph.mask, glyph.width, glyph.height, x + glyph.x, y + glyph.y, color);
+                x += glyph.advance;
+            }
+        }
+
+        return x;
+    }
+
+    /**
+     * Draws antialiased text, each character is blended onto the canvas by its coverage.
+     * @param glyphs Glyph atlas of the font to draw with.
+     * @param text The text, a StringBuilder can be reused between frames to avoid allocating strings.
+     * @param x Left edge of the text.
+     * @param y Baseline of the text.
+     * @param color The color.
+     * @return The x coordinate after the last character, rounded.
+     */
+    @APIComponent
+    public int drawText(final GlyphAtlas glyphs, final CharSequence text, final int x, final int y,
+                        final short color) {
+        final int red = color >> 11 & 0x1F;
+        final int green = color >> 5 & 0x3F;
+        final int blue = color & 0x1F;
+
+        synchronized (glyphs) {
+            int pen = x << GlyphAtlas.SHIFT;
+            char previous = 0;
+
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (i > 0)
+                    pen += glyphs.getKerning(previous, c);
+
+                final GlyphAtlas.Glyph glyph = glyphs.getGlyph(c);
+                final int left = (pen + GlyphAtlas.ONE / 2 >> GlyphAtlas.SHIFT) + glyph.x;
+                drawCoverage(glyphs.getAtlas(), glyphs.getAtlasWidth(), glyph, left, y + glyph.y, red, green, blue);
+
+                pen += glyph.advance;
+                previous = c;
+            }
+
+            return pen + GlyphAtlas.ONE / 2 >> GlyphAtlas.SHIFT;
+        }
+    }
+
+    private void drawCoverage(final byte[] atlas, final int atlasWidth, final GlyphAtlas.Glyph glyph, final int x,
+                              final int y, final int red, final int green, final int blue) {
+        final int left = Math.max(x, clipX);
+        final int top = Math.max(y, clipY);
+        final int right = Math.min(x + glyph.width, clipRight);
+        final int bottom = Math.min(y + glyph.height, clipBottom);
+
+        for (int row = top; row < bottom; row++) {
+            final int atlasRow = (glyph.atlasY + row - y) * atlasWidth + glyph.atlasX - x;
+            final int pixelRow = row * stride;
+
+            for (int col = left; col < right; col++) {
+                final int coverage = atlas[atlasRow + col] & 0xFF;
+                if (coverage == 0)
+                    continue;
+
+                final int index = pixelRow + col;
+                if (coverage == 255) {
+                    pixels.put(index, (short) (red << 11 | green << 5 | blue));
+                    continue;
+                }
+
+                final int under = pixels.get(index);
+                final int inverse = 255 - coverage;
+                final int r = (red * coverage + (under >> 11 & 0x1F) * inverse + 127) / 255;
+                final int g = (green * coverage + (under >> 5 & 0x3F) * inverse + 127) / 255;
+                final int b = (blue * coverage + (under & 0x1F) * inverse + 127) / 255;
+                pixels.put(index, (short) (r << 11 | g << 5 | b));
+            }
+        }
+    }
+
+    private void drawMask(final byte[] mask, final int maskWidth, final int maskHeight, final int x, final int y,
+                          final short color) {
+        final int left = Math.max(x, clipX);
+        final int top = Math.max(y, clipY);
+        final int right = Math.min(x + maskWidth, clipRight);
+        final int bottom = Math.min(y + maskHeight, clipBottom);
+
+        for (int row = top; row < bottom; row++) {
+            final int maskRow = (row - y) * maskWidth - x;
+            final int pixelRow = row * stride;
+            for (int col = left; col < right; col++) {
+                if (mask[maskRow + col] != 0)
+                    pixels.put(pixelRow + col, color);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Image decoded into RGB565 pixels held off-heap, ready to be copied into a render target.
+ * Pixels are laid out row after row, with the start of each row {@link #getStride()} pixels after the previous one.
+ * Regions of an image can be used as images of their own without copying any pixels.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class Rgb565Image {
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final ShortBuffer pixels;
+
+    /**
+     * Wraps an existing RGB565 buffer without row padding.
+     * @param width Width of the image.
+     * @param height Height of the image.
+     * @param pixels Buffer holding width * height pixels from its position.
+     */
+    @APIComponent
+    public Rgb565Image(final int width, final int height, final ShortBuffer pixels) {
+        this(width, height, width, pixels);
+    }
+
+    /**
+     * Wraps an existing RGB565 buffer.
+     * @param width Width of the image.
+     * @param height Height of the image.
+     * @param stride Number of pixels between the start of two rows.
+     * @param pixels Buffer holding the pixels from its position.
+     */
+    @APIComponent
+    public Rgb565Image(final int width, final int height, final int stride, final ShortBuffer pixels) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("width and height must be positive");
+
+        if (stride < width)
+            throw new IllegalArgumentException("stride can't be less than width");
+
+        final int required = (height - 1) * stride + width;
+        if (pixels.remaining() < required)
+            throw new IllegalArgumentException(String.format("Buffer holds %d pixels, %dx%d with stride %d needs %d",
+                                                             pixels.remaining(), width, height, stride, required));
+
+        this.width = width;
+        this.height = height;
+        this.stride = stride;
+        this.pixels = pixels.slice();
+    }
+
+    /**
+     * Allocates a new black image off-heap.
+     * @param width Width of the image.
+     * @param height Height of the image.
+     * @return The new image.
+     */
+    @APIComponent
+    public static Rgb565Image allocate(final int width, final int height) {
+        final ShortBuffer buffer = ByteBuffer.allocateDirect(width * height * 2)
+                                             .order(ByteOrder.nativeOrder())
+                                             .asShortBuffer();
+        return new Rgb565Image(width, height, buffer);
+    }
+
+    /**
+     * Converts an image to RGB565.
+     * @param image The image to convert.
+     * @return The converted image.
+     */
+    @APIComponent
+    public static Rgb565Image fromImage(final BufferedImage image) {
+        final Rgb565Image result = allocate(image.getWidth(), image.getHeight());
+        PixelConverter.convert(image, result.pixels.duplicate());
+        return result;
+    }
+
+    /**
+     * Converts an image to RGB565, dithering it.
+     * @param image The image to convert.
+     * @param mode How to dither the image.
+     * @return The converted image.
+     */
+    @APIComponent
+    public static Rgb565Image fromImage(final BufferedImage image, final DitherMode mode) {
+        final Rgb565Image result = allocate(image.getWidth(), image.getHeight());
+        PixelConverter.convert(image, result.pixels.duplicate(), mode);
+        return result;
+    }
+
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of pixels between the start of two rows in the buffer returned by {@link #getPixels()}.
+     * @return The row stride, equal to the width unless this image is a region of a larger image.
+     */
+    @APIComponent
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Gets a region of this image, sharing the pixel data with it.
+     * @param x X position of the region.
+     * @param y Y position of the region.
+     * @param width Width of the region.
+     * @param height Height of the region.
+     * @return Image view of the region.
+     */
+    @APIComponent
+    public Rgb565Image getRegion(final int x, final int y, final int width, final int height) {
+        if (x < 0 || y < 0 || width <= 0 || height <= 0 || x + width > this.width || y + height > this.height)
+            throw new IllegalArgumentException("Region is outside of the image");
+
+        final ShortBuffer region = pixels.duplicate();
+        region.position(y * stride + x);
+        return new Rgb565Image(width, height, stride, region);
+    }
+
+    /**
+     * Gets the size of the pixel data.
+     * @return Size of the pixel data, in bytes.
+     */
+    @APIComponent
+    public int getSizeInBytes() {
+        return width * height * 2;
+    }
+
+    /**
+     * Gets the pixels of this image.
+     * The returned buffer is a new view on the pixel data, positioned at the first pixel.
+     * @return Buffer holding the pixels, rows are {@link #getStride()} pixels apart.
+     */
+    @APIComponent
+    public ShortBuffer getPixels() {
+        return pixels.duplicate();
+    }
+
+    /**
+     * Gets the pixel buffer itself, for callers that only use absolute access and must not allocate.
+     */
+    ShortBuffer pixelBuffer() {
+        return pixels;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Image cache that resizes every image to one size as it is decoded, so artwork of any size can be set
+ * on a target that only accepts images of its own size. Set one on a render target with
+ * {@code target.setImageCache(new ScaledImageCache(maxBytes, target.getDisplayWidth(), target.getDisplayHeight(), fit))}.
+ * <p>
+ * Images are keyed by path and target size, so getting a cached image never touches the file system.
+ * The modification time and size of each file are recorded when it is loaded; call {@link #invalidateStale()}
+ * to drop images whose files have changed since.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class ScaledImageCache extends ImageCache {
+    private final Logger log;
+
+    private final int width;
+    private final int height;
+    private final Resampler.Fit fit;
+
+    /**
+     * Modification time and length of each file when it was last loaded, keyed by path.
+     */
+    private final ConcurrentHashMap<String, long[]> stamps;
+
+    /**
+     * Creates a new scaled image cache.
+     * @param maxBytes Maximum total size of cached pixel data, in bytes.
+     * @param width Width to resize images to.
+     * @param height Height to resize images to.
+     * @param fit How to fit images with a different aspect ratio.
+     */
+    @APIComponent
+    public ScaledImageCache(final long maxBytes, final int width, final int height, final Resampler.Fit fit) {
+        super(maxBytes);
+
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("width and height must be positive");
+
+        log = LogManager.getLogger();
+        this.width = width;
+        this.height = height;
+        this.fit = fit;
+        stamps = new ConcurrentHashMap<String, long[]>();
+    }
+
+    @APIComponent
+    public int getWidth() {
+        return width;
+    }
+
+    @APIComponent
+    public int getHeight() {
+        return height;
+    }
+
+    @APIComponent
+    public Resampler.Fit getFit() {
+        return fit;
+    }
+
+    @Override
+    protected String getKey(final String path) {
+        return path + "|" + width + "x" + height;
+    }
+
+    @Override
+    protected Rgb565Image load(final String path) throws IOException {
+        final File file = new File(path);
+        final long[] stamp = {file.lastModified(), file.length()};
+
+        final BufferedImage decoded = ImageIO.read(file);
+        if (decoded == null)
+            throw new IOException("Unsupported image format: " + path);
+
+        log.debug("Resampling {} from {}x{} to {}x{}", path, decoded.getWidth(), decoded.getHeight(), width, height);
+        final Rgb565Image image = Resampler.resizeToRgb565(decoded, width, height, fit);
+        stamps.put(path, stamp);
+        return image;
+    }
+
+    /**
+     * Checks whether the file of a cached image has changed since it was loaded.
+     * @param path Path to the image file.
+     * @return True if the file has a different modification time or size than when it was loaded,
+     *         false if it is unchanged or was never loaded.
+     */
+    @APIComponent
+    public boolean isStale(final String path) {
+        final long[] stamp = stamps.get(path);
+        if (stamp == null)
+            return false;
+
+        final File file = new File(path);
+        return file.lastModified() != stamp[0] || file.length() != stamp[1];
+    }
+
+    /**
+     * Drops every image whose file has changed since it was loaded, so it is resampled the next time it is used.
+     * This checks the file system once per image, call it when files are known to have changed or on a timer.
+     * @return Number of images dropped.
+     */
+    @APIComponent
+    public int invalidateStale() {
+        int count = 0;
+
+        for (final String path : stamps.keySet()) {
+            if (!contains(getKey(path))) {
+                // Evicted since it was loaded, nothing to check
+                stamps.remove(path);
+            } else if (isStale(path)) {
+                log.debug("{} has changed, dropping it", path);
+                invalidate(path);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Decodes and resamples images in parallel, one thread per processor, so they are ready when set.
+     * The threads are started for this call and stopped once all images have been loaded.
+     * @param paths Paths to the image files.
+     * @return Images that could not be loaded, mapped to the error, empty if all were loaded.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the images.
+     */
+    @APIComponent
+    public Map<String, IOException> preload(final Collection<String> paths) throws InterruptedException {
+        final AtomicInteger threads = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "JBlade image preload " + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        try {
+            return preload(paths, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decodes and resamples images in parallel on a given executor, so they are ready when set.
+     * Decoding blocks on file reads, so the executor should not be a fork/join pool used for computation.
+     * @param paths Paths to the image files.
+     * @param executor Executor to load the images on.
+     * @return Images that could not be loaded, mapped to the error, empty if all were loaded.
+     * @throws InterruptedException If the calling thread was interrupted while waiting for the images.
+     */
+    @APIComponent
+    public Map<String, IOException> preload(final Collection<String> paths, final ExecutorService executor)
+            throws InterruptedException {
+        final List<String> ordered = new ArrayList<String>(paths);
+        final List<Callable<Rgb565Image>> tasks = new ArrayList<Callable<Rgb565Image>>(ordered.size());
+
+        for (final String path : ordered) {
+            tasks.add(new Callable<Rgb565Image>() {
+                @Override
+                public Rgb565Image call() throws IOException {
+                    return get(path);
+                }
+            });
+        }
+
+        final List<Future<Rgb565Image>> results = executor.invokeAll(tasks);
+        final Map<String, IOException> failures = new LinkedHashMap<String, IOException>();
+
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).get();
+            } catch (final ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                failures.put(ordered.get(i), cause instanceof IOException
+                                             ? (IOException) cause
+                                             : new IOException(cause));
+            }
+        }
+
+        if (!failures.isEmpty())
+            log.warn("Failed to preload {} of {} images", failures.size(), ordered.size());
+
+        return failures;
+    }
+
+    @Override
+    @APIComponent
+    public void invalidate(final String path) {
+        super.invalidate(getKey(path));
+        stamps.remove(path);
+    }
+}
@@ -2,6 +2,14 @@ package com.sharparam.jblade.integration;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Created by on 2014-02-07.
@@ -9,10 +17,192 @@ import java.awt.image.BufferedImage;
  * @author Sharparam
  */
 public class Renderer {
+    /**
+     * Surfaces kept per component, replaced only when the size of the component or the requested type changes.
+     * Weak keys let components be garbage collected together with their surface.
+     */
+    private static final Map<Component, BufferedImage> surfaces = new WeakHashMap<Component, BufferedImage>();
+
+    private static final ColorModel RGB565_COLOR_MODEL =
+            new BufferedImage(1, 1, BufferedImage.TYPE_USHORT_565_RGB).getColorModel();
+
+    /**
+     * Renders a component into a new RGB565 image.
+     * @param component The component to render.
+     * @return Image with the rendered component, owned by the caller.
+     */
     public static BufferedImage renderComponent(Component component) {
-        BufferedImage result = new BufferedImage(component.getWidth(),
-                component.getHeight(), BufferedImage.TYPE_USHORT_565_RGB);
-        component.paint(result.getGraphics());
+        final BufferedImage result = new BufferedImage(component.getWidth(), component.getHeight(),
+                                                       BufferedImage.TYPE_USHORT_565_RGB);
+        paint(component, result);
+        return result;
+    }
+
+    /**
+     * Renders a component into an RGB565 surface owned by the renderer.
+     * The same surface is returned for every call with the same component as long as its size is unchanged,
+     * so its contents are only valid until the next call for that component.
+     * Use {@link #renderComponent(Component)} to get an image that can be kept.
+     * @param component The component to render.
+     * @return Image with the rendered component.
+     */
+    public static BufferedImage renderPooled(Component component) {
+        return renderPooled(component, BufferedImage.TYPE_USHORT_565_RGB);
+    }
+
+    /**
+     * Renders a component into a surface of a given type owned by the renderer.
+     * The same surface is returned for every call with the same component as long as its size and the type
+     * are unchanged, so its contents are only valid until the next call for that component.
+     * @param component The component to render.
+     * @param imageType Type of the surface, {@link BufferedImage#TYPE_USHORT_565_RGB} or
+     *                  {@link BufferedImage#TYPE_INT_RGB}. An RGB surface keeps the full color depth,
+     *                  for converting it to RGB565 with dithering.
+     * @return Image with the rendered component.
+     */
+    public static BufferedImage renderPooled(Component component, int imageType) {
+        final int width = component.getWidth();
+        final int height = component.getHeight();
+
+        BufferedImage result;
+
+        synchronized (surfaces) {
+            result = surfaces.get(component);
+            if (!isReusable(result, width, height, imageType)) {
+                result = createSurface(width, height, imageType);
+                surfaces.put(component, result);
+            } else {
+                clear(result);
+            }
+        }
+
+        paint(component, result);
+        return result;
+    }
+
+    /**
+     * Renders the dirty region of a component into the RGB565 surface kept for it, leaving the rest of the
+     * surface as it was painted last time. If the surface did not exist yet or the component has been resized,
+     * the whole component is painted and the region is grown to cover it.
+     * @param component The component to render.
+     * @param region Region to repaint, relative to the component. Clipped to the component and updated in place
+     *               to the area that was actually painted, which may be empty.
+     * @return Surface holding the rendered component, shared with {@link #renderPooled(Component)}.
+     */
+    public static BufferedImage renderRegion(Component component, Rectangle region) {
+        return renderRegion(component, region, BufferedImage.TYPE_USHORT_565_RGB);
+    }
+
+    /**
+     * Renders the dirty region of a component into the surface of a given type kept for it, leaving the rest
+     * of the surface as it was painted last time. If the surface did not exist yet, the component has been
+     * resized or the surface had another type, the whole component is painted and the region is grown to cover it.
+     * @param component The component to render.
+     * @param region Region to repaint, relative to the component. Clipped to the component and updated in place
+     *               to the area that was actually painted, which may be empty.
+     * @param imageType Type of the surface, {@link BufferedImage#TYPE_USHORT_565_RGB} or
+     *                  {@link BufferedImage#TYPE_INT_RGB}.
+     * @return Surface holding the rendered component, shared with {@link #renderPooled(Component, int)}.
+     */
+    public static BufferedImage renderRegion(Component component, Rectangle region, int imageType) {
+        final int width = component.getWidth();
+        final int height = component.getHeight();
+
+        BufferedImage result;
+
+        synchronized (surfaces) {
+            result = surfaces.get(component);
+            if (!isReusable(result, width, height, imageType)) {
+                result = createSurface(width, height, imageType);
+                surfaces.put(component, result);
+                region.setBounds(0, 0, width, height);
+            } else {
+                Rectangle.intersect(region, new Rectangle(0, 0, width, height), region);
+                if (region.isEmpty())
+                    return result;
+                clear(result, region);
+            }
+        }
+
+        final Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.clip(region);
+            component.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+
         return result;
     }
+
+    /**
+     * Renders a component into a caller supplied image.
+     * The component is painted over the current contents of the image.
+     * @param component The component to render.
+     * @param target Image to render into.
+     */
+    public static void renderComponent(Component component, BufferedImage target) {
+        paint(component, target);
+    }
+
+    /**
+     * Renders a component into a caller supplied raster holding RGB565 pixels,
+     * laid out like the raster of a {@link BufferedImage#TYPE_USHORT_565_RGB} image.
+     * @param component The component to render.
+     * @param raster Raster to render into.
+     */
+    public static void renderComponent(Component component, WritableRaster raster) {
+        paint(component, new BufferedImage(RGB565_COLOR_MODEL, raster, false, null));
+    }
+
+    /**
+     * Releases the surface kept for a component.
+     * @param component The component to release the surface of.
+     */
+    public static void releaseSurface(Component component) {
+        synchronized (surfaces) {
+            surfaces.remove(component);
+        }
+    }
+
+    private static void paint(Component component, BufferedImage target) {
+        final Graphics2D graphics = target.createGraphics();
+        try {
+            component.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    private static boolean isReusable(BufferedImage surface, int width, int height, int imageType) {
+        return surface != null && surface.getWidth() == width && surface.getHeight() == height
+               && surface.getType() == imageType;
+    }
+
+    private static BufferedImage createSurface(int width, int height, int imageType) {
+        if (imageType != BufferedImage.TYPE_USHORT_565_RGB && imageType != BufferedImage.TYPE_INT_RGB)
+            throw new IllegalArgumentException("Surfaces must be TYPE_USHORT_565_RGB or TYPE_INT_RGB");
+
+        return new BufferedImage(width, height, imageType);
+    }
+
+    private static void clear(BufferedImage image) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        if (buffer instanceof DataBufferInt)
+            Arrays.fill(((DataBufferInt) buffer).getData(), 0);
+        else
+            Arrays.fill(((DataBufferUShort) buffer).getData(), (short) 0);
+    }
+
+    private static void clear(BufferedImage image, Rectangle region) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        final int stride = image.getWidth();
+        for (int y = region.y; y < region.y + region.height; y++) {
+            final int start = y * stride + region.x;
+            if (buffer instanceof DataBufferInt)
+                Arrays.fill(((DataBufferInt) buffer).getData(), start, start + region.width, 0);
+            else
+                Arrays.fill(((DataBufferUShort) buffer).getData(), start, start + region.width, (short) 0);
+        }
+    }
 }
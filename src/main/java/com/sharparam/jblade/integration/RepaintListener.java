@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.integration;
+
+import java.awt.*;
+
+/**
+ * Receives notifications from {@link RepaintTracker} when Swing has repainted a tracked component
+ * or any of its descendants.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public interface RepaintListener {
+    /**
+     * Called when part of a tracked component has been repainted.
+     * This is called on the event dispatch thread once Swing has painted the region, with the union of the regions
+     * marked dirty since the last call, so the component may be painted again here.
+     * @param root The tracked component.
+     * @param x X position of the repainted region, relative to root.
+     * @param y Y position of the repainted region, relative to root.
+     * @param width Width of the repainted region.
+     * @param height Height of the repainted region.
+     */
+    void regionRepainted(Component root, int x, int y, int width, int height);
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.integration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RepaintManager that reports dirty regions of tracked components to listeners,
+ * letting renderers update the SwitchBlade only when Swing actually repaints something.
+ * Regions marked dirty on any thread are collected per tracked component and reported on the
+ * event dispatch thread by {@link #paintDirtyRegions()}, after Swing has painted them,
+ * so listeners can paint exactly those regions themselves.
+ * <p>
+ * The tracker wraps the RepaintManager that was current when the first listener was added and delegates
+ * all repaint management to it, so a custom RepaintManager installed by the application keeps working.
+ * Once the last listener has been removed, the wrapped manager is made current again.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RepaintTracker extends RepaintManager {
+    private static RepaintTracker instance;
+
+    private final Logger log;
+
+    private final Map<Component, List<RepaintListener>> listeners;
+
+    /**
+     * Union of the regions marked dirty since the last paint pass for each tracked component, guarded by itself.
+     */
+    private final Map<Component, Rectangle> dirtyRegions;
+    private boolean paintScheduled;
+    private final Runnable paintTask;
+
+    /**
+     * The manager that was current when the tracker was installed, all calls are delegated to it.
+     */
+    private volatile RepaintManager delegate;
+
+    private RepaintTracker() {
+        log = LogManager.getLogger();
+        listeners = new ConcurrentHashMap<Component, List<RepaintListener>>();
+        dirtyRegions = new HashMap<Component, Rectangle>();
+        paintTask = new Runnable() {
+            @Override
+            public void run() {
+                paintDirtyRegions();
+            }
+        };
+        delegate = RepaintManager.currentManager((Component) null);
+    }
+
+    /**
+     * Gets the RepaintTracker instance. It is only installed as the current RepaintManager while it has listeners.
+     * @return The RepaintTracker instance.
+     */
+    public static synchronized RepaintTracker getInstance() {
+        if (instance == null)
+            instance = new RepaintTracker();
+
+        return instance;
+    }
+
+    /**
+     * Starts reporting repaints of a component and its descendants to a listener,
+     * installing the tracker around the current RepaintManager if this is the first listener.
+     * @param root The component to track.
+     * @param listener The listener to notify.
+     */
+    public void addRepaintListener(final Component root, final RepaintListener listener) {
+        synchronized (listeners) {
+            if (listeners.isEmpty())
+                install();
+
+            List<RepaintListener> list = listeners.get(root);
+            if (list == null) {
+                list = new CopyOnWriteArrayList<RepaintListener>();
+                listeners.put(root, list);
+            }
+            list.add(listener);
+        }
+    }
+
+    /**
+     * Stops reporting repaints of a component to a listener,
+     * restoring the wrapped RepaintManager if this was the last listener.
+     * @param root The tracked component.
+     * @param listener The listener to remove.
+     */
+    public void removeRepaintListener(final Component root, final RepaintListener listener) {
+        synchronized (listeners) {
+            final List<RepaintListener> list = listeners.get(root);
+            if (list == null)
+                return;
+            list.remove(listener);
+            if (list.isEmpty())
+                listeners.remove(root);
+
+            if (listeners.isEmpty())
+                uninstall();
+        }
+    }
+
+    private void install() {
+        final RepaintManager current = RepaintManager.currentManager((Component) null);
+        if (current == this)
+            return;
+
+        log.debug("Installing RepaintTracker around {}", current.getClass().getName());
+        delegate = current;
+        RepaintManager.setCurrentManager(this);
+    }
+
+    private void uninstall() {
+        final RepaintManager current = RepaintManager.currentManager((Component) null);
+        if (current != this) {
+            log.warn("RepaintTracker was replaced by {}, leaving it installed", current.getClass().getName());
+            return;
+        }
+
+        log.debug("Restoring {} as current RepaintManager", delegate.getClass().getName());
+        RepaintManager.setCurrentManager(delegate);
+    }
+
+    @Override
+    public void addDirtyRegion(final JComponent c, final int x, final int y, final int w, final int h) {
+        delegate.addDirtyRegion(c, x, y, w, h);
+        collectDirtyRegion(c, x, y, w, h);
+    }
+
+    @Override
+    public void addDirtyRegion(final Window window, final int x, final int y, final int w, final int h) {
+        delegate.addDirtyRegion(window, x, y, w, h);
+        collectDirtyRegion(window, x, y, w, h);
+    }
+
+    @Override
+    public void addInvalidComponent(final JComponent invalidComponent) {
+        delegate.addInvalidComponent(invalidComponent);
+    }
+
+    @Override
+    public void removeInvalidComponent(final JComponent component) {
+        delegate.removeInvalidComponent(component);
+    }
+
+    @Override
+    public Rectangle getDirtyRegion(final JComponent component) {
+        return delegate.getDirtyRegion(component);
+    }
+
+    @Override
+    public void markCompletelyDirty(final JComponent component) {
+        delegate.markCompletelyDirty(component);
+    }
+
+    @Override
+    public void markCompletelyClean(final JComponent component) {
+        delegate.markCompletelyClean(component);
+    }
+
+    @Override
+    public boolean isCompletelyDirty(final JComponent component) {
+        return delegate.isCompletelyDirty(component);
+    }
+
+    @Override
+    public void validateInvalidComponents() {
+        delegate.validateInvalidComponents();
+    }
+
+    /**
+     * Paints the dirty regions through the wrapped manager, then reports the regions collected for tracked
+     * components to their listeners. Runs on the event dispatch thread, scheduled after the wrapped manager's
+     * own paint pass whenever a tracked component has been marked dirty.
+     */
+    @Override
+    public void paintDirtyRegions() {
+        delegate.paintDirtyRegions();
+
+        final Map<Component, Rectangle> painted;
+        synchronized (dirtyRegions) {
+            paintScheduled = false;
+            if (dirtyRegions.isEmpty())
+                return;
+
+            painted = new HashMap<Component, Rectangle>(dirtyRegions);
+            dirtyRegions.clear();
+        }
+
+        for (final Map.Entry<Component, Rectangle> entry : painted.entrySet()) {
+            final List<RepaintListener> list = listeners.get(entry.getKey());
+            if (list == null)
+                continue;
+
+            final Rectangle region = entry.getValue();
+            for (final RepaintListener listener : list)
+                listener.regionRepainted(entry.getKey(), region.x, region.y, region.width, region.height);
+        }
+    }
+
+    @Override
+    public Image getOffscreenBuffer(final Component c, final int proposedWidth, final int proposedHeight) {
+        return delegate.getOffscreenBuffer(c, proposedWidth, proposedHeight);
+    }
+
+    @Override
+    public Image getVolatileOffscreenBuffer(final Component c, final int proposedWidth, final int proposedHeight) {
+        return delegate.getVolatileOffscreenBuffer(c, proposedWidth, proposedHeight);
+    }
+
+    @Override
+    public void setDoubleBufferMaximumSize(final Dimension d) {
+        delegate.setDoubleBufferMaximumSize(d);
+    }
+
+    @Override
+    public Dimension getDoubleBufferMaximumSize() {
+        return delegate.getDoubleBufferMaximumSize();
+    }
+
+    @Override
+    public void setDoubleBufferingEnabled(final boolean enabled) {
+        delegate.setDoubleBufferingEnabled(enabled);
+    }
+
+    @Override
+    public boolean isDoubleBufferingEnabled() {
+        return delegate.isDoubleBufferingEnabled();
+    }
+
+    private void collectDirtyRegion(final Component c, final int x, final int y, final int w, final int h) {
+        if (listeners.isEmpty() || w <= 0 || h <= 0)
+            return;
+
+        int rootX = x;
+        int rootY = y;
+
+        for (Component component = c; component != null; component = component.getParent()) {
+            if (listeners.containsKey(component))
+                markDirty(component, new Rectangle(rootX, rootY, w, h));
+
+            if (component instanceof Window)
+                break;
+
+            rootX += component.getX();
+            rootY += component.getY();
+        }
+    }
+
+    private void markDirty(final Component root, final Rectangle region) {
+        synchronized (dirtyRegions) {
+            final Rectangle dirty = dirtyRegions.get(root);
+            if (dirty == null)
+                dirtyRegions.put(root, region);
+            else
+                dirty.add(region);
+
+            if (paintScheduled)
+                return;
+
+            paintScheduled = true;
+        }
+
+        // Queued behind the wrapped manager's own paint pass, which it scheduled when the region was added
+        SwingUtilities.invokeLater(paintTask);
+    }
+}
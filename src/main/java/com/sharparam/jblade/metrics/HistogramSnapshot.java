@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.metrics;
+
+import com.sharparam.jblade.annotations.APIComponent;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}, all values are in nanoseconds.
+ * Percentiles are reported as the upper end of the bucket they fall in, so they err on the slow side.
+ * The getters make this usable as an attribute of a JMX MXBean.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(final long[] counts, final long count, final long sum, final long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     * @return The number of values.
+     */
+    @APIComponent
+    public long getCount() {
+        return count;
+    }
+
+    @APIComponent
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    @APIComponent
+    public long getMax() {
+        return max;
+    }
+
+    @APIComponent
+    public long getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    @APIComponent
+    public long getP90() {
+        return getValueAtPercentile(90);
+    }
+
+    @APIComponent
+    public long getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    @APIComponent
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Gets the value below which a percentage of the recorded values fall.
+     * @param percentile Percentage between 0 and 100.
+     * @return The value, capped at the largest value recorded, 0 if nothing has been recorded.
+     */
+    @APIComponent
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+
+        if (count == 0)
+            return 0;
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(LatencyHistogram.getBucketEnd(i), max);
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%d p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                             count, getMean(), getP50(), getP90(), getP99(), getP999(), max);
+    }
+}
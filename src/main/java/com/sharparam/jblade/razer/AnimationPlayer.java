@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.Animation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays an {@link Animation} on a render target, timed on the shared render scheduler.
+ * The frame to show is worked out from the time since playback started,
+ * so frames are skipped rather than delayed when the device can't keep up.
+ * Playback is suspended while the application is deactivated by the SwitchBlade framework.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class AnimationPlayer {
+    private final Logger log;
+
+    private final RenderTarget target;
+    private final Animation animation;
+    private final boolean loop;
+
+    private final Runnable tick;
+
+    private final AtomicLong shownFrames;
+    private final AtomicLong skippedFrames;
+
+    private long startNanos;
+    private long pausedAtNanos;
+    private int lastFrame;
+
+    private boolean running;
+    private boolean paused;
+    private boolean suspended;
+
+    private ScheduledFuture<?> nextTick;
+
+    AnimationPlayer(final RenderTarget target, final Animation animation, final boolean loop) {
+        if (animation.getWidth() != target.getDisplayWidth() || animation.getHeight() != target.getDisplayHeight())
+            throw new IllegalArgumentException(String.format("Animation needs to be %dx%d, was %dx%d",
+                                                             target.getDisplayWidth(), target.getDisplayHeight(),
+                                                             animation.getWidth(), animation.getHeight()));
+
+        log = LogManager.getLogger();
+
+        this.target = target;
+        this.animation = animation;
+        this.loop = loop;
+
+        tick = new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+
+        shownFrames = new AtomicLong();
+        skippedFrames = new AtomicLong();
+        lastFrame = -1;
+    }
+
+    @APIComponent
+    public Animation getAnimation() {
+        return animation;
+    }
+
+    @APIComponent
+    public boolean isLooping() {
+        return loop;
+    }
+
+    /**
+     * Gets whether the animation is still playing, paused animations count as playing.
+     * @return True if playing, false if stopped or finished.
+     */
+    @APIComponent
+    public synchronized boolean isPlaying() {
+        return running;
+    }
+
+    @APIComponent
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Gets the number of frames that have been sent to the target.
+     * @return Number of shown frames.
+     */
+    @APIComponent
+    public long getShownFrameCount() {
+        return shownFrames.get();
+    }
+
+    /**
+     * Gets the number of frames that were skipped because their time had already passed.
+     * @return Number of skipped frames.
+     */
+    @APIComponent
+    public long getSkippedFrameCount() {
+        return skippedFrames.get();
+    }
+
+    @APIComponent
+    public synchronized void pause() {
+        if (!running || paused)
+            return;
+
+        paused = true;
+        halt();
+    }
+
+    @APIComponent
+    public synchronized void resume() {
+        if (!running || !paused)
+            return;
+
+        paused = false;
+        proceed();
+    }
+
+    @APIComponent
+    public synchronized void stop() {
+        if (!running)
+            return;
+
+        log.debug("Stopping animation on {}", target.getTargetDisplay());
+        halt();
+        running = false;
+    }
+
+    synchronized void start() {
+        log.debug("Starting animation with {} frames on {}", animation.getFrameCount(), target.getTargetDisplay());
+        running = true;
+        startNanos = System.nanoTime();
+        schedule(0);
+    }
+
+    /**
+     * Suspends or resumes playback as the application is deactivated and activated.
+     * @param suspend True when the application has been deactivated.
+     */
+    synchronized void setSuspended(final boolean suspend) {
+        if (suspend == suspended)
+            return;
+
+        suspended = suspend;
+
+        if (!running || paused)
+            return;
+
+        if (suspend)
+            halt();
+        else
+            proceed();
+    }
+
+    private void halt() {
+        // Only halt once, pause and suspend may both apply
+        if (nextTick == null)
+            return;
+
+        pausedAtNanos = System.nanoTime();
+        nextTick.cancel(false);
+        nextTick = null;
+    }
+
+    private void proceed() {
+        if (paused || suspended || nextTick != null)
+            return;
+
+        startNanos += System.nanoTime() - pausedAtNanos;
+        schedule(0);
+    }
+
+    private void schedule(final long delayNanos) {
+        if (paused || suspended)
+            return;
+
+        nextTick = RenderScheduler.getExecutor().schedule(tick, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void tick() {
+        nextTick = null;
+
+        if (!running || paused || suspended)
+            return;
+
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        final long duration = animation.getDuration();
+
+        if (!loop && elapsed >= duration) {
+            show(animation.getFrameCount() - 1);
+            running = false;
+            log.debug("Animation on {} finished", target.getTargetDisplay());
+            return;
+        }
+
+        final long time = elapsed % duration;
+        final int frame = animation.getFrameAt(time);
+
+        show(frame);
+
+        final int next = frame + 1;
+        final long nextStart = next < animation.getFrameCount() ? animation.getFrameStart(next) : duration;
+        schedule(TimeUnit.MILLISECONDS.toNanos(nextStart - time));
+    }
+
+    private void show(final int frame) {
+        if (frame == lastFrame)
+            return;
+
+        if (lastFrame >= 0) {
+            final int count = animation.getFrameCount();
+            final int skipped = (frame - lastFrame - 1 + count) % count;
+            if (skipped > 0)
+                skippedFrames.addAndGet(skipped);
+        }
+
+        lastFrame = frame;
+        shownFrames.incrementAndGet();
+        target.postImage(animation.getFrame(frame));
+    }
+}
@@ -0,0 +1,606 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.PixelConverter;
+import com.sharparam.jblade.imaging.Rgb565Canvas;
+import com.sharparam.jblade.imaging.Rgb565Image;
+import com.sharparam.jblade.razer.exceptions.RazerNativeException;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Composes a stack of RGB565 layers into a persistent frame for a render target, typically the touchpad.
+ * Each layer tracks the rectangles that changed since the last composition, and {@link #compose()}
+ * only recomposes those areas straight into the frame buffer of the target before uploading it,
+ * so a small change costs a small number of pixels. Anything else drawn to the target in between
+ * makes the next composition redraw the whole display.
+ * <p>
+ * Layers are composed in the order they were added, the first at the bottom. Areas no layer covers are black.
+ * All methods of the compositor and its layers may be called from any thread.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class Compositor {
+    /**
+     * How the pixels of a layer are combined with the layers below it.
+     */
+    public enum BlendMode {
+        /**
+         * Every pixel replaces what is below it.
+         */
+        OPAQUE,
+
+        /**
+         * Pixels of the key color are transparent, all others replace what is below them.
+         */
+        COLOR_KEY,
+
+        /**
+         * Pixels are blended with what is below them using a per-pixel alpha value.
+         */
+        ALPHA
+    }
+
+    /**
+     * Number of separate dirty rectangles kept before they are merged into their bounding box.
+     */
+    static final int MAX_DIRTY_RECTS = 16;
+
+    private final RenderTarget target;
+    private final int width;
+    private final int height;
+
+    /**
+     * Frame being composed into, only set during a composition.
+     */
+    private ShortBuffer framePixels;
+
+    /**
+     * Frame buffer write count of the target after the last composition.
+     */
+    private long frameWrites;
+
+    private final List<Layer> layers;
+    private final List<Rectangle> dirty;
+
+    private final AtomicLong composedPixels;
+
+    /**
+     * Creates a compositor for a render target, the whole frame starts out dirty.
+     * @param target The target to upload composed frames to.
+     */
+    @APIComponent
+    public Compositor(final RenderTarget target) {
+        this(target, target.getDisplayWidth(), target.getDisplayHeight());
+    }
+
+    Compositor(final RenderTarget target, final int width, final int height) {
+        this.target = target;
+        this.width = width;
+        this.height = height;
+        frameWrites = -1;
+
+        layers = new ArrayList<Layer>();
+        dirty = new ArrayList<Rectangle>();
+        dirty.add(new Rectangle(0, 0, width, height));
+
+        composedPixels = new AtomicLong();
+    }
+
+    @APIComponent
+    public RenderTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the total number of pixels recomposed so far.
+     * @return Number of composed pixels.
+     */
+    @APIComponent
+    public long getComposedPixelCount() {
+        return composedPixels.get();
+    }
+
+    /**
+     * Adds a layer on top of the existing layers, it starts out transparent for blended layers and black otherwise.
+     * @param x Left edge of the layer on the display.
+     * @param y Top edge of the layer on the display.
+     * @param width Width of the layer.
+     * @param height Height of the layer.
+     * @param mode How the layer is blended with the layers below it.
+     * @return The new layer.
+     */
+    @APIComponent
+    public synchronized Layer addLayer(final int x, final int y, final int width, final int height,
+                                       final BlendMode mode) {
+        final Layer layer = new Layer(x, y, width, height, mode);
+        layers.add(layer);
+        markDirty(layer.getBounds());
+        return layer;
+    }
+
+    /**
+     * Adds a layer covering the whole display on top of the existing layers.
+     * @param mode How the layer is blended with the layers below it.
+     * @return The new layer.
+     */
+    @APIComponent
+    public Layer addLayer(final BlendMode mode) {
+        return addLayer(0, 0, width, height, mode);
+    }
+
+    @APIComponent
+    public synchronized void removeLayer(final Layer layer) {
+        if (layers.remove(layer))
+            markDirty(layer.getBounds());
+    }
+
+    /**
+     * Marks the whole display as dirty, so the next composition redraws everything.
+     */
+    @APIComponent
+    public synchronized void invalidate() {
+        dirty.clear();
+        dirty.add(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Recomposes the dirty areas of all layers and uploads the frame to the target.
+     * The frame is drawn synchronously, also when the target renders asynchronously.
+     * @return Number of pixels that were recomposed, 0 if nothing was dirty and nothing was uploaded.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public int compose() throws RazerNativeException {
+        final int pixels;
+
+        synchronized (this) {
+            if (dirty.isEmpty())
+                return 0;
+
+            final Rgb565Canvas canvas = target.beginDraw();
+            try {
+                // Anything else written to the frame buffer since the last composition replaced the frame
+                if (target.getFrameWriteCount() != frameWrites + 1)
+                    invalidate();
+                frameWrites = target.getFrameWriteCount();
+
+                pixels = composeInto(canvas.getImage().getPixels());
+            } finally {
+                target.endDraw();
+            }
+        }
+
+        composedPixels.addAndGet(pixels);
+        return pixels;
+    }
+
+    /**
+     * Recomposes the dirty areas into a frame holding the previous composition and clears them.
+     * @param frame Pixels of the frame, with the display width as stride.
+     * @return Number of pixels that were recomposed.
+     */
+    synchronized int composeInto(final ShortBuffer frame) {
+        int pixels = 0;
+
+        framePixels = frame;
+        try {
+            for (final Rectangle rect : dirty) {
+                composeRect(rect);
+                pixels += rect.width * rect.height;
+            }
+        } finally {
+            framePixels = null;
+        }
+
+        dirty.clear();
+        return pixels;
+    }
+
+    private void composeRect(final Rectangle rect) {
+        // Layers below one that is opaque over the whole rectangle can't be seen
+        int bottom = -1;
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            final Layer layer = layers.get(i);
+            if (layer.visible && layer.mode == BlendMode.OPAQUE && layer.getBounds().contains(rect)) {
+                bottom = i;
+                break;
+            }
+        }
+
+        if (bottom < 0) {
+            for (int y = rect.y; y < rect.y + rect.height; y++) {
+                final int row = y * width;
+                for (int x = rect.x; x < rect.x + rect.width; x++)
+                    framePixels.put(row + x, (short) 0);
+            }
+            bottom = 0;
+        }
+
+        for (int i = bottom; i < layers.size(); i++) {
+            final Layer layer = layers.get(i);
+            if (layer.visible)
+                layer.composeInto(rect);
+        }
+    }
+
+    /**
+     * Adds a rectangle in display coordinates to the dirty areas, clipped to the display.
+     */
+    private void markDirty(final Rectangle area) {
+        final Rectangle rect = area.intersection(new Rectangle(0, 0, width, height));
+        if (!rect.isEmpty())
+            addDirtyRect(dirty, rect);
+    }
+
+    /**
+     * Adds a rectangle to a set of disjoint dirty rectangles, merging it with every rectangle it overlaps.
+     * If the set grows past {@link #MAX_DIRTY_RECTS} it is replaced by its bounding box.
+     * @param dirty The dirty rectangles, updated in place.
+     * @param rect Rectangle to add, not empty. It may be modified and kept in the set.
+     */
+    static void addDirtyRect(final List<Rectangle> dirty, final Rectangle rect) {
+        // Merge with any overlapping rectangle until the set is disjoint again
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < dirty.size(); i++) {
+                final Rectangle other = dirty.get(i);
+                if (other.intersects(rect)) {
+                    rect.add(other);
+                    dirty.remove(i);
+                    merged = true;
+                    break;
+                }
+            }
+        }
+
+        dirty.add(rect);
+
+        if (dirty.size() > MAX_DIRTY_RECTS) {
+            final Rectangle bounds = new Rectangle(dirty.get(0));
+            for (final Rectangle other : dirty)
+                bounds.add(other);
+
+            dirty.clear();
+            dirty.add(bounds);
+        }
+    }
+
+    private static short blend(final short over, final short under, final int alpha) {
+        final int inverse = 255 - alpha;
+        final int r = ((over >> 11 & 0x1F) * alpha + (under >> 11 & 0x1F) * inverse + 127) / 255;
+        final int g = ((over >> 5 & 0x3F) * alpha + (under >> 5 & 0x3F) * inverse + 127) / 255;
+        final int b = ((over & 0x1F) * alpha + (under & 0x1F) * inverse + 127) / 255;
+        return (short) (r << 11 | g << 5 | b);
+    }
+
+    /**
+     * Layer of a compositor. Changes made through a layer's own methods are tracked automatically,
+     * changes drawn through its canvas must be reported with {@link #invalidate(int, int, int, int)}.
+     */
+    public class Layer {
+        private final int width;
+        private final int height;
+        private final BlendMode mode;
+
+        private final Rgb565Image image;
+        private final ShortBuffer pixels;
+        private final Rgb565Canvas canvas;
+
+        /**
+         * Alpha of every pixel, only used by {@link BlendMode#ALPHA} layers.
+         */
+        private final byte[] alpha;
+
+        private int x;
+        private int y;
+        private boolean visible;
+        private short colorKey;
+
+        private Layer(final int x, final int y, final int width, final int height, final BlendMode mode) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.mode = mode;
+
+            image = Rgb565Image.allocate(width, height);
+            pixels = image.getPixels();
+            canvas = new Rgb565Canvas(image);
+            alpha = mode == BlendMode.ALPHA ? new byte[width * height] : null;
+            visible = true;
+        }
+
+        @APIComponent
+        public int getX() {
+            return x;
+        }
+
+        @APIComponent
+        public int getY() {
+            return y;
+        }
+
+        @APIComponent
+        public int getWidth() {
+            return width;
+        }
+
+        @APIComponent
+        public int getHeight() {
+            return height;
+        }
+
+        @APIComponent
+        public BlendMode getBlendMode() {
+            return mode;
+        }
+
+        /**
+         * Gets a canvas drawing into this layer, call {@link #invalidate(int, int, int, int)} for the areas drawn.
+         * The canvas draws colors only, pixels of an alpha layer keep their alpha.
+         * @return Canvas over the pixels of this layer.
+         */
+        @APIComponent
+        public Rgb565Canvas getCanvas() {
+            return canvas;
+        }
+
+        @APIComponent
+        public boolean isVisible() {
+            synchronized (Compositor.this) {
+                return visible;
+            }
+        }
+
+        @APIComponent
+        public void setVisible(final boolean visible) {
+            synchronized (Compositor.this) {
+                if (visible == this.visible)
+                    return;
+
+                this.visible = visible;
+                markDirty(getBounds());
+            }
+        }
+
+        /**
+         * Moves the layer on the display.
+         * @param x New left edge.
+         * @param y New top edge.
+         */
+        @APIComponent
+        public void setPosition(final int x, final int y) {
+            synchronized (Compositor.this) {
+                if (x == this.x && y == this.y)
+                    return;
+
+                markDirty(getBounds());
+                this.x = x;
+                this.y = y;
+                markDirty(getBounds());
+            }
+        }
+
+        /**
+         * Sets the color treated as transparent in a {@link BlendMode#COLOR_KEY} layer, black by default.
+         * @param color The RGB565 key color.
+         */
+        @APIComponent
+        public void setColorKey(final short color) {
+            synchronized (Compositor.this) {
+                colorKey = color;
+                markDirty(getBounds());
+            }
+        }
+
+        /**
+         * Marks part of this layer as changed.
+         * @param x Left edge of the changed area, relative to the layer.
+         * @param y Top edge of the changed area, relative to the layer.
+         * @param width Width of the changed area.
+         * @param height Height of the changed area.
+         */
+        @APIComponent
+        public void invalidate(final int x, final int y, final int width, final int height) {
+            synchronized (Compositor.this) {
+                final Rectangle rect = new Rectangle(x, y, width, height).intersection(
+                        new Rectangle(0, 0, this.width, this.height));
+                if (rect.isEmpty())
+                    return;
+
+                rect.translate(this.x, this.y);
+                markDirty(rect);
+            }
+        }
+
+        /**
+         * Marks the whole layer as changed.
+         */
+        @APIComponent
+        public void invalidate() {
+            invalidate(0, 0, width, height);
+        }
+
+        /**
+         * Fills an area of the layer with a color, fully opaque in an alpha layer.
+         * @param x Left edge of the area, relative to the layer.
+         * @param y Top edge of the area, relative to the layer.
+         * @param width Width of the area.
+         * @param height Height of the area.
+         * @param color The RGB565 color.
+         */
+        @APIComponent
+        public void fill(final int x, final int y, final int width, final int height, final short color) {
+            synchronized (Compositor.this) {
+                canvas.fillRect(x, y, width, height, color);
+                setAlpha(x, y, width, height, 255);
+                invalidate(x, y, width, height);
+            }
+        }
+
+        /**
+         * Makes an area of the layer transparent, for an alpha layer, or sets it to black otherwise.
+         * @param x Left edge of the area, relative to the layer.
+         * @param y Top edge of the area, relative to the layer.
+         * @param width Width of the area.
+         * @param height Height of the area.
+         */
+        @APIComponent
+        public void clear(final int x, final int y, final int width, final int height) {
+            synchronized (Compositor.this) {
+                canvas.fillRect(x, y, width, height, mode == BlendMode.COLOR_KEY ? colorKey : 0);
+                setAlpha(x, y, width, height, 0);
+                invalidate(x, y, width, height);
+            }
+        }
+
+        /**
+         * Draws an RGB565 image into the layer, fully opaque in an alpha layer.
+         * @param source The image to draw.
+         * @param x Left edge to draw at, relative to the layer.
+         * @param y Top edge to draw at, relative to the layer.
+         */
+        @APIComponent
+        public void draw(final Rgb565Image source, final int x, final int y) {
+            synchronized (Compositor.this) {
+                canvas.blit(source, x, y);
+                setAlpha(x, y, source.getWidth(), source.getHeight(), 255);
+                invalidate(x, y, source.getWidth(), source.getHeight());
+            }
+        }
+
+        /**
+         * Draws an image into the layer, an alpha layer takes the alpha of the image along with its colors.
+         * @param source The image to draw.
+         * @param x Left edge to draw at, relative to the layer.
+         * @param y Top edge to draw at, relative to the layer.
+         */
+        @APIComponent
+        public void draw(final BufferedImage source, final int x, final int y) {
+            synchronized (Compositor.this) {
+                final int left = Math.max(x, 0);
+                final int top = Math.max(y, 0);
+                final int right = Math.min(x + source.getWidth(), width);
+                final int bottom = Math.min(y + source.getHeight(), height);
+
+                if (left >= right || top >= bottom)
+                    return;
+
+                final int[] row = new int[right - left];
+                for (int py = top; py < bottom; py++) {
+                    source.getRGB(left - x, py - y, row.length, 1, row, 0, row.length);
+                    for (int px = left; px < right; px++) {
+                        final int argb = row[px - left];
+                        final int index = py * width + px;
+
+                        if (alpha != null) {
+                            pixels.put(index, PixelConverter.toRgb565(
+                                    argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF));
+                            alpha[index] = (byte) (argb >>> 24);
+                        } else {
+                            pixels.put(index, PixelConverter.toRgb565(argb));
+                        }
+                    }
+                }
+
+                invalidate(left, top, right - left, bottom - top);
+            }
+        }
+
+        private Rectangle getBounds() {
+            return new Rectangle(x, y, width, height);
+        }
+
+        private void setAlpha(final int x, final int y, final int width, final int height, final int value) {
+            if (alpha == null)
+                return;
+
+            final int left = Math.max(x, 0);
+            final int right = Math.min(x + width, this.width);
+
+            for (int row = Math.max(y, 0); row < Math.min(y + height, this.height); row++) {
+                if (left < right)
+                    Arrays.fill(alpha, row * this.width + left, row * this.width + right, (byte) value);
+            }
+        }
+
+        /**
+         * Composes the part of this layer inside a rectangle of the display onto the frame.
+         */
+        private void composeInto(final Rectangle rect) {
+            final int left = Math.max(rect.x, x);
+            final int top = Math.max(rect.y, y);
+            final int right = Math.min(rect.x + rect.width, x + width);
+            final int bottom = Math.min(rect.y + rect.height, y + height);
+
+            for (int row = top; row < bottom; row++) {
+                final int source = (row - y) * width - x;
+                final int dest = row * Compositor.this.width;
+
+                switch (mode) {
+                    case OPAQUE:
+                        for (int col = left; col < right; col++)
+                            framePixels.put(dest + col, pixels.get(source + col));
+                        break;
+
+                    case COLOR_KEY:
+                        for (int col = left; col < right; col++) {
+                            final short pixel = pixels.get(source + col);
+                            if (pixel != colorKey)
+                                framePixels.put(dest + col, pixel);
+                        }
+                        break;
+
+                    case ALPHA:
+                        for (int col = left; col < right; col++) {
+                            final int a = alpha[source + col] & 0xFF;
+                            if (a == 255)
+                                framePixels.put(dest + col, pixels.get(source + col));
+                            else if (a != 0)
+                                framePixels.put(dest + col, blend(pixels.get(source + col),
+                                                                  framePixels.get(dest + col), a));
+                        }
+                        break;
+                }
+            }
+        }
+    }
+}
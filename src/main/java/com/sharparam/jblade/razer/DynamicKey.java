@@ -29,6 +29,9 @@
 package com.sharparam.jblade.razer;
 
 import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.AssetPack;
+import com.sharparam.jblade.imaging.ImageCache;
+import com.sharparam.jblade.imaging.Rgb565Image;
 import com.sharparam.jblade.razer.events.DynamicKeyEvent;
 import com.sharparam.jblade.razer.exceptions.RazerNativeException;
 import com.sharparam.jblade.razer.listeners.DynamicKeyListener;
@@ -37,6 +40,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created on 2014-01-24.
@@ -54,11 +58,39 @@ public class DynamicKey extends RenderTarget {
     private String upImage;
     private String downImage;
 
+    /**
+     * Decoded state images, set when the image for a state was drawn from the image cache.
+     * The key then has to switch between them itself, as the SDK only knows the image paths it was given.
+     */
+    private Rgb565Image upFrame;
+    private Rgb565Image downFrame;
+
+    /**
+     * Image paths last handed to RzSBSetImageDynamicKey for each state, and the number of frames
+     * uploaded to the key at that time. While no frame has been uploaded since, the device still shows
+     * that image for the state and setting it again is a no-op.
+     */
+    private String deviceUpImage;
+    private String deviceDownImage;
+    private long deviceUpUploads;
+    private long deviceDownUploads;
+
+    private final AtomicLong elidedCalls;
+
     DynamicKey(final RazerAPI.DynamicKeyType keyType, final String image, String pressedImage,
                       final DynamicKeyListener listener) throws RazerNativeException {
+        this(keyType, image, pressedImage, listener, null);
+    }
+
+    DynamicKey(final RazerAPI.DynamicKeyType keyType, final String image, String pressedImage,
+               final DynamicKeyListener listener, final ImageCache imageCache) throws RazerNativeException {
         super(keyType.getTargetDisplay(), RazerAPI.DYNAMIC_KEY_HEIGHT, RazerAPI.DYNAMIC_KEY_WIDTH);
 
+        // Set before the initial images so they can already come from the cache
+        setImageCache(imageCache);
+
         log = LogManager.getLogger();
+        elidedCalls = new AtomicLong();
 
         if (image == null || image.isEmpty())
             throw new IllegalArgumentException("image argument can't be null or empty");
@@ -106,7 +138,19 @@ public class DynamicKey extends RenderTarget {
 
     @APIComponent
     public boolean hasSingleImage() {
-        return upImage.equals(downImage);
+        if (upImage != null)
+            return upImage.equals(downImage);
+
+        return downImage == null && upFrame == downFrame;
+    }
+
+    /**
+     * Gets the number of times setting an image was skipped because the device already had it for the state.
+     * @return Number of elided RzSBSetImageDynamicKey calls.
+     */
+    @APIComponent
+    public long getElidedCallCount() {
+        return elidedCalls.get();
     }
 
     @APIComponent
@@ -138,19 +182,128 @@ public class DynamicKey extends RenderTarget {
 
     @APIComponent
     public void setImage(final String image, final RazerAPI.DynamicKeyState state) throws RazerNativeException {
+        setImage(image, state, false);
+    }
+
+    private void setImage(final String image, final RazerAPI.DynamicKeyState state, final boolean force)
+            throws RazerNativeException {
         if (state != RazerAPI.DynamicKeyState.UP && state != RazerAPI.DynamicKeyState.DOWN)
             throw new IllegalArgumentException("State can only be up or down");
 
+        final Rgb565Image cached = loadCachedImage(image);
+        if (cached != null) {
+            log.debug("Setting {} on {} to cached {}", state, keyType, image);
+            setFrame(image, cached, state, force);
+            return;
+        }
+
+        final boolean up = state == RazerAPI.DynamicKeyState.UP;
+
+        if (!force && image.equals(up ? deviceUpImage : deviceDownImage)
+                && getUploadedFrameCount() == (up ? deviceUpUploads : deviceDownUploads)) {
+            log.debug("{} on {} is already {}, skipping", state, keyType, image);
+            elidedCalls.incrementAndGet();
+            setPath(image, state);
+            return;
+        }
+
         log.debug("Setting {} on {} to {}", state, keyType, image);
 
+        if (up)
+            deviceUpImage = null;
+        else
+            deviceDownImage = null;
+
         final RazerAPI.Hresult result = RazerAPI.INSTANCE.RzSBSetImageDynamicKey(keyType, state, image);
         if (result.isError())
             throw new RazerNativeException("RzSBSetImageDynamicKey", result);
 
-        if (state == RazerAPI.DynamicKeyState.UP)
+        invalidateFrame();
+
+        if (up) {
+            deviceUpImage = image;
+            deviceUpUploads = getUploadedFrameCount();
+        } else {
+            deviceDownImage = image;
+            deviceDownUploads = getUploadedFrameCount();
+        }
+
+        setPath(image, state);
+    }
+
+    private void setPath(final String image, final RazerAPI.DynamicKeyState state) {
+        if (state == RazerAPI.DynamicKeyState.UP) {
             upImage = image;
-        else
+            upFrame = null;
+        } else {
             downImage = image;
+            downFrame = null;
+        }
+    }
+
+    /**
+     * Sets the image for a state from RGB565 pixels instead of an image file.
+     * The key draws the image itself through RzSBRenderBuffer whenever it enters the state.
+     * @param image The image, must be {@link RazerAPI#DYNAMIC_KEY_WIDTH} by {@link RazerAPI#DYNAMIC_KEY_HEIGHT}.
+     * @param state The state to set the image for, up or down.
+     * @throws RazerNativeException If the image is shown right away and the native render call fails.
+     */
+    @APIComponent
+    public void setImage(final Rgb565Image image, final RazerAPI.DynamicKeyState state) throws RazerNativeException {
+        if (state != RazerAPI.DynamicKeyState.UP && state != RazerAPI.DynamicKeyState.DOWN)
+            throw new IllegalArgumentException("State can only be up or down");
+
+        checkImage(image);
+
+        log.debug("Setting {} on {} to RGB565 image", state, keyType);
+        setFrame(null, image, state, false);
+    }
+
+    @APIComponent
+    public void setImages(final Rgb565Image image, final Rgb565Image pressedImage) throws RazerNativeException {
+        setImage(image, RazerAPI.DynamicKeyState.UP);
+        setImage(pressedImage, RazerAPI.DynamicKeyState.DOWN);
+    }
+
+    @Override
+    @APIComponent
+    public void setImage(final Rgb565Image image) throws RazerNativeException {
+        setImages(image, image);
+    }
+
+    @APIComponent
+    public void setImage(final AssetPack.Entry entry, final RazerAPI.DynamicKeyState state)
+            throws RazerNativeException {
+        setImage(entry.getImage(), state);
+    }
+
+    @APIComponent
+    public void setImages(final AssetPack.Entry entry, final AssetPack.Entry pressedEntry)
+            throws RazerNativeException {
+        setImages(entry.getImage(), pressedEntry.getImage());
+    }
+
+    private void setFrame(final String image, final Rgb565Image frame, final RazerAPI.DynamicKeyState state,
+                          final boolean force) throws RazerNativeException {
+        if (state == RazerAPI.DynamicKeyState.UP) {
+            upImage = image;
+            upFrame = frame;
+        } else {
+            downImage = image;
+            downFrame = frame;
+        }
+
+        if (state == getDisplayedState(this.state))
+            drawImage(frame, force);
+    }
+
+    /**
+     * Gets which of the two state images is shown in a key state.
+     */
+    private static RazerAPI.DynamicKeyState getDisplayedState(final RazerAPI.DynamicKeyState state) {
+        return state == RazerAPI.DynamicKeyState.DOWN || state == RazerAPI.DynamicKeyState.HOLD
+                ? RazerAPI.DynamicKeyState.DOWN
+                : RazerAPI.DynamicKeyState.UP;
     }
 
     @APIComponent
@@ -163,9 +316,34 @@ public class DynamicKey extends RenderTarget {
         setImage(image, RazerAPI.DynamicKeyState.DOWN);
     }
 
+    @APIComponent
+    public void setUpImage(final AssetPack.Entry entry) throws RazerNativeException {
+        setImage(entry, RazerAPI.DynamicKeyState.UP);
+    }
+
+    @APIComponent
+    public void setDownImage(final AssetPack.Entry entry) throws RazerNativeException {
+        setImage(entry, RazerAPI.DynamicKeyState.DOWN);
+    }
+
+    /**
+     * Pushes the images of both states to the device again, even if it should already have them.
+     * @throws RazerNativeException If a native call fails.
+     */
     @APIComponent
     public void refresh() throws RazerNativeException {
-        setImages(upImage, downImage);
+        refresh(RazerAPI.DynamicKeyState.UP);
+        refresh(RazerAPI.DynamicKeyState.DOWN);
+    }
+
+    private void refresh(final RazerAPI.DynamicKeyState state) throws RazerNativeException {
+        final boolean up = state == RazerAPI.DynamicKeyState.UP;
+        final String image = up ? upImage : downImage;
+
+        if (image != null)
+            setImage(image, state, true);
+        else
+            setFrame(null, up ? upFrame : downFrame, state, true);
     }
 
     @APIComponent
@@ -214,6 +392,19 @@ public class DynamicKey extends RenderTarget {
     void updateState(final RazerAPI.DynamicKeyState state) {
         previousState = this.state;
         this.state = state;
+
+        final RazerAPI.DynamicKeyState displayed = getDisplayedState(state);
+        if (displayed != getDisplayedState(previousState)) {
+            final Rgb565Image frame = displayed == RazerAPI.DynamicKeyState.DOWN ? downFrame : upFrame;
+            if (frame != null) {
+                try {
+                    drawImage(frame);
+                } catch (final RazerNativeException ex) {
+                    log.error("Failed to draw {} image on {}: {}", displayed, keyType, ex.getHresult().name());
+                }
+            }
+        }
+
         onStateChanged();
         if (this.state == RazerAPI.DynamicKeyState.UP &&
                 (previousState == RazerAPI.DynamicKeyState.DOWN || previousState == RazerAPI.DynamicKeyState.NONE)) {
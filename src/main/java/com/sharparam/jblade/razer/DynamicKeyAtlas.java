@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.Rgb565Image;
+import com.sharparam.jblade.razer.exceptions.RazerNativeException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Sprite sheet holding the art for all dynamic keys, laid out the same way as the keys on the device:
+ * {@link RazerAPI#DYNAMIC_KEYS_PER_ROW} keys per row and {@link RazerAPI#DYNAMIC_KEY_ROWS} rows.
+ * A sheet of exactly that size uses the same image for the up and down states,
+ * a sheet twice as high has the up images in the top half and the down images in the bottom half.
+ * The sheet is decoded once, the image of each key is a view into it.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class DynamicKeyAtlas {
+    /**
+     * Width of a sheet, in pixels.
+     */
+    @APIComponent
+    public static final int SHEET_WIDTH = RazerAPI.DYNAMIC_KEYS_PER_ROW * RazerAPI.DYNAMIC_KEY_WIDTH;
+
+    /**
+     * Height of a sheet holding one image per key, in pixels.
+     */
+    @APIComponent
+    public static final int SHEET_HEIGHT = RazerAPI.DYNAMIC_KEY_ROWS * RazerAPI.DYNAMIC_KEY_HEIGHT;
+
+    private final Rgb565Image sheet;
+    private final boolean separateDownImages;
+
+    /**
+     * Creates an atlas from a decoded sheet.
+     * @param sheet The sheet, {@link #SHEET_WIDTH} wide and {@link #SHEET_HEIGHT} or twice that high.
+     */
+    @APIComponent
+    public DynamicKeyAtlas(final Rgb565Image sheet) {
+        if (sheet.getWidth() != SHEET_WIDTH
+                || (sheet.getHeight() != SHEET_HEIGHT && sheet.getHeight() != SHEET_HEIGHT * 2))
+            throw new IllegalArgumentException(String.format("Sheet needs to be %dx%d or %dx%d, was %dx%d",
+                                                             SHEET_WIDTH, SHEET_HEIGHT, SHEET_WIDTH, SHEET_HEIGHT * 2,
+                                                             sheet.getWidth(), sheet.getHeight()));
+
+        this.sheet = sheet;
+        separateDownImages = sheet.getHeight() == SHEET_HEIGHT * 2;
+    }
+
+    /**
+     * Creates an atlas from a sheet image, converting it to RGB565.
+     * @param sheet The sheet, {@link #SHEET_WIDTH} wide and {@link #SHEET_HEIGHT} or twice that high.
+     */
+    @APIComponent
+    public DynamicKeyAtlas(final BufferedImage sheet) {
+        this(Rgb565Image.fromImage(sheet));
+    }
+
+    /**
+     * Loads an atlas from an image file.
+     * @param path Path to the sheet image.
+     * @return The loaded atlas.
+     * @throws IOException If the file could not be read or is not a supported image format.
+     */
+    @APIComponent
+    public static DynamicKeyAtlas load(final String path) throws IOException {
+        final BufferedImage image = ImageIO.read(new File(path));
+        if (image == null)
+            throw new IOException("Unsupported image format: " + path);
+
+        return new DynamicKeyAtlas(image);
+    }
+
+    /**
+     * Gets whether the sheet has separate images for the down state.
+     * @return True if the sheet holds up and down images, false if both states use the same image.
+     */
+    @APIComponent
+    public boolean hasSeparateDownImages() {
+        return separateDownImages;
+    }
+
+    /**
+     * Gets the image of a key, as a view into the sheet.
+     * @param keyType The key to get the image of.
+     * @param state The state to get the image for, up or down.
+     * @return The image of the key.
+     */
+    @APIComponent
+    public Rgb565Image getImage(final RazerAPI.DynamicKeyType keyType, final RazerAPI.DynamicKeyState state) {
+        if (keyType == RazerAPI.DynamicKeyType.NONE || keyType == RazerAPI.DynamicKeyType.INVALID)
+            throw new IllegalArgumentException("keyType must be one of the dynamic keys");
+
+        if (state != RazerAPI.DynamicKeyState.UP && state != RazerAPI.DynamicKeyState.DOWN)
+            throw new IllegalArgumentException("State can only be up or down");
+
+        final int index = keyType.ordinal() - 1;
+        final int column = index % RazerAPI.DYNAMIC_KEYS_PER_ROW;
+        int row = index / RazerAPI.DYNAMIC_KEYS_PER_ROW;
+
+        if (separateDownImages && state == RazerAPI.DynamicKeyState.DOWN)
+            row += RazerAPI.DYNAMIC_KEY_ROWS;
+
+        return sheet.getRegion(column * RazerAPI.DYNAMIC_KEY_WIDTH, row * RazerAPI.DYNAMIC_KEY_HEIGHT,
+                               RazerAPI.DYNAMIC_KEY_WIDTH, RazerAPI.DYNAMIC_KEY_HEIGHT);
+    }
+
+    /**
+     * Sets the up and down images of a dynamic key from this atlas.
+     * @param key The key to set the images of.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void apply(final DynamicKey key) throws RazerNativeException {
+        key.setImages(getImage(key.getKeyType(), RazerAPI.DynamicKeyState.UP),
+                      getImage(key.getKeyType(), RazerAPI.DynamicKeyState.DOWN));
+    }
+
+    /**
+     * Sets the up and down images of every enabled dynamic key from this atlas.
+     * @param manager The manager holding the dynamic keys.
+     * @throws RazerNativeException If a native render call fails.
+     */
+    @APIComponent
+    public void apply(final RazerManager manager) throws RazerNativeException {
+        for (final RazerAPI.DynamicKeyType keyType : RazerAPI.DynamicKeyType.values()) {
+            if (keyType == RazerAPI.DynamicKeyType.NONE || keyType == RazerAPI.DynamicKeyType.INVALID)
+                continue;
+
+            final DynamicKey key = manager.getDynamicKey(keyType);
+            if (key != null)
+                apply(key);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paces uploads to a render target when RzSBRenderBuffer slows down.
+ * Upload latency is tracked as a moving average. While it exceeds the latency budget, the minimum
+ * interval between uploads is doubled, and once uploads are comfortably within budget again it shrinks
+ * by a quarter per upload. Both steps are multiplicative, so the interval backs off quickly and recovers
+ * gradually without oscillating. Frames that arrive before the interval has passed are dropped
+ * instead of queueing behind a slow device.
+ * <p>
+ * All methods except the getters must be called with the frame lock of the target held.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class FramePacer {
+    /**
+     * Weight of a new sample in the moving averages.
+     */
+    private static final double ALPHA = 0.25;
+
+    private static final long MAX_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private volatile long budget;
+
+    private final AtomicLong droppedFrames;
+
+    private double averageLatency;
+    private volatile double averageInterval;
+    private volatile long lastUploadNanos;
+    private long minInterval;
+
+    FramePacer() {
+        droppedFrames = new AtomicLong();
+    }
+
+    long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the latency budget, 0 disables pacing.
+     */
+    void setBudget(final long nanos) {
+        if (nanos < 0)
+            throw new IllegalArgumentException("Latency budget can't be negative");
+
+        budget = nanos;
+    }
+
+    long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Gets the rate frames are actually uploaded at, decaying towards zero when uploads stop.
+     */
+    double getEffectiveFps() {
+        final long last = lastUploadNanos;
+        final double interval = averageInterval;
+
+        if (last == 0 || interval == 0)
+            return 0;
+
+        return 1e9 / Math.max(interval, System.nanoTime() - last);
+    }
+
+    /**
+     * Decides whether a frame should be dropped to keep within the budget, counting it if so.
+     * @param now Current time, from System.nanoTime.
+     * @return True to drop the frame.
+     */
+    boolean drop(final long now) {
+        if (budget == 0 || minInterval == 0 || lastUploadNanos == 0 || now - lastUploadNanos >= minInterval)
+            return false;
+
+        droppedFrames.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Gets how long to wait before a dropped frame can be uploaded.
+     * @param now Current time, from System.nanoTime.
+     * @return Delay in nanoseconds.
+     */
+    long getRemainingInterval(final long now) {
+        return Math.max(0, lastUploadNanos + minInterval - now);
+    }
+
+    /**
+     * Records a successful upload and adapts the upload interval.
+     * @param start Time the upload started, from System.nanoTime.
+     * @param end Time the upload returned, from System.nanoTime.
+     */
+    void recordUpload(final long start, final long end) {
+        final long latency = end - start;
+        final long last = lastUploadNanos;
+
+        averageLatency = averageLatency == 0 ? latency : averageLatency + ALPHA * (latency - averageLatency);
+
+        if (last != 0) {
+            final double interval = averageInterval;
+            averageInterval = interval == 0 ? start - last : interval + ALPHA * (start - last - interval);
+        }
+
+        lastUploadNanos = start;
+
+        final long budget = this.budget;
+        if (budget == 0) {
+            minInterval = 0;
+            return;
+        }
+
+        if (latency > budget) {
+            minInterval = Math.min(MAX_INTERVAL, Math.max(minInterval * 2, (long) averageLatency));
+        } else if (averageLatency < budget / 2) {
+            minInterval -= minInterval / 4;
+            if (minInterval < MIN_INTERVAL)
+                minInterval = 0;
+        }
+    }
+}
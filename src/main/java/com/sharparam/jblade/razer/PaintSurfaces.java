@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.integration.Renderer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Surfaces the components drawn to a render target are painted into. Swing components may only be painted
+ * on the event dispatch thread, so painting happens there and only the finished surface is handed to
+ * the render thread, which converts it and gives it back with {@link #release(BufferedImage)}.
+ * A surface is never painted again before it has been released, surfaces still being converted are
+ * simply not reused yet.
+ * <p>
+ * All methods may be called from any thread.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class PaintSurfaces {
+    /**
+     * Number of released surfaces kept for reuse, one being painted and one being converted.
+     */
+    static final int MAX_FREE = 2;
+
+    private final RenderMetrics metrics;
+
+    /**
+     * Released surfaces, guarded by itself.
+     */
+    private final List<BufferedImage> free;
+
+    PaintSurfaces(final RenderMetrics metrics) {
+        this.metrics = metrics;
+        free = new ArrayList<BufferedImage>();
+    }
+
+    /**
+     * Paints a component into a cleared surface on the event dispatch thread,
+     * waiting for the event dispatch thread when called from any other thread.
+     * The caller must not hold any lock the event dispatch thread may be waiting for.
+     * @param component The component to paint.
+     * @param imageType Type of the surface, {@link BufferedImage#TYPE_USHORT_565_RGB} or
+     *                  {@link BufferedImage#TYPE_INT_RGB}.
+     * @return The painted surface, to be released once it has been converted.
+     * @throws IllegalStateException If the calling thread was interrupted while waiting,
+     *                               its interrupt status is set again.
+     */
+    BufferedImage paint(final Component component, final int imageType) {
+        if (SwingUtilities.isEventDispatchThread())
+            return paintNow(component, imageType);
+
+        final BufferedImage[] surface = new BufferedImage[1];
+
+        try {
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    surface[0] = paintNow(component, imageType);
+                }
+            });
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the event dispatch thread", ex);
+        } catch (final InvocationTargetException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException("Painting the component failed", cause);
+        }
+
+        return surface[0];
+    }
+
+    /**
+     * Gives back a surface returned by {@link #paint(Component, int)} once nothing reads it anymore.
+     * @param surface The surface to release.
+     */
+    void release(final BufferedImage surface) {
+        synchronized (free) {
+            if (free.size() < MAX_FREE)
+                free.add(surface);
+        }
+    }
+
+    private BufferedImage paintNow(final Component component, final int imageType) {
+        final long start = System.nanoTime();
+        final BufferedImage surface = acquire(component.getWidth(), component.getHeight(), imageType);
+        Renderer.renderComponent(component, surface);
+        metrics.recordPaint(System.nanoTime() - start);
+        return surface;
+    }
+
+    private BufferedImage acquire(final int width, final int height, final int imageType) {
+        BufferedImage surface = null;
+
+        synchronized (free) {
+            for (int i = 0; i < free.size() && surface == null; i++) {
+                final BufferedImage candidate = free.get(i);
+                if (candidate.getWidth() == width && candidate.getHeight() == height
+                    && candidate.getType() == imageType)
+                    surface = free.remove(i);
+            }
+        }
+
+        if (surface != null) {
+            clear(surface);
+            return surface;
+        }
+
+        if (imageType != BufferedImage.TYPE_USHORT_565_RGB && imageType != BufferedImage.TYPE_INT_RGB)
+            throw new IllegalArgumentException("Surfaces must be TYPE_USHORT_565_RGB or TYPE_INT_RGB");
+
+        return new BufferedImage(width, height, imageType);
+    }
+
+    private static void clear(final BufferedImage surface) {
+        final DataBuffer buffer = surface.getRaster().getDataBuffer();
+        if (buffer instanceof DataBufferInt)
+            Arrays.fill(((DataBufferInt) buffer).getData(), 0);
+        else
+            Arrays.fill(((DataBufferUShort) buffer).getData(), (short) 0);
+    }
+}
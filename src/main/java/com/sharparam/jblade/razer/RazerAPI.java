@@ -884,6 +884,11 @@ public class RazerAPI {
          */
         RZSB_INTERNAL_ERROR (0x20100004);
 
+        /**
+         * Cached copy of {@link #values()}, avoids cloning the array on every native call.
+         */
+        private static final Hresult[] VALUES = values();
+
         private final int val;
 
         private Hresult(final int val) {
@@ -958,7 +963,7 @@ public class RazerAPI {
          * @return The Hresult value of the integer.
          */
         public static Hresult getFromApiValue(final int value) {
-            for (final Hresult err : Hresult.values()) {
+            for (final Hresult err : VALUES) {
                 if (err.getVal() == value)
                     return err;
             }
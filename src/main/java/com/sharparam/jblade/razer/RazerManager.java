@@ -30,6 +30,7 @@ package com.sharparam.jblade.razer;
 
 import com.sharparam.jblade.ModifierKeys;
 import com.sharparam.jblade.annotations.NativeCodeBinding;
+import com.sharparam.jblade.imaging.ImageCache;
 import com.sharparam.jblade.razer.events.*;
 import com.sharparam.jblade.razer.exceptions.RazerDynamicKeyException;
 import com.sharparam.jblade.razer.exceptions.RazerInvalidAppEventModeException;
@@ -40,9 +41,16 @@ import com.sun.jna.platform.win32.WinDef;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Created on 2014-01-24.
@@ -76,6 +84,8 @@ public class RazerManager {
 
     private boolean keyboardCapture;
 
+    private volatile ImageCache dynamicKeyImageCache;
+
     /**
      * Initializes a new instance of the RazerManager class.
      * @throws RazerNativeException Thrown if any native call fails during initialization.
@@ -188,7 +198,14 @@ public class RazerManager {
     }
 
     public void stop() {
-        log.info("RazerManager is stopping! Calling RzSBStop...");
+        log.info("RazerManager is stopping! Disposing render targets...");
+        touchpad.dispose();
+        for (final DynamicKey dk : dynamicKeys) {
+            if (dk != null)
+                dk.dispose();
+        }
+
+        log.info("Calling RzSBStop...");
         razerAPI.RzSBStop();
         log.info("RazerManager has stopped.");
     }
@@ -197,6 +214,19 @@ public class RazerManager {
         return dynamicKeys[keyType.ordinal() - 1];
     }
 
+    public ImageCache getDynamicKeyImageCache() {
+        return dynamicKeyImageCache;
+    }
+
+    /**
+     * Sets the image cache given to dynamic keys as they are enabled, so that their first images
+     * can already be drawn from it. Keys that are already enabled keep their cache.
+     * @param cache The cache, or null to enable keys without one.
+     */
+    public void setDynamicKeyImageCache(final ImageCache cache) {
+        dynamicKeyImageCache = cache;
+    }
+
     public DynamicKey enableDynamicKey(final RazerAPI.DynamicKeyType type, final DynamicKeyListener listener,
                                        final String image, final String pressedImage, final boolean replace) throws RazerDynamicKeyException {
         final int index = type.ordinal() - 1;
@@ -211,7 +241,8 @@ public class RazerManager {
 
         try {
             log.debug("Creating new DynamicKey object");
-            final DynamicKey dk = new DynamicKey(type, image, pressedImage, listener);
+            final DynamicKey dk = new DynamicKey(type, image, pressedImage, listener, dynamicKeyImageCache);
+            dk.registerMetrics();
             dynamicKeys[index] = dk;
         } catch (final RazerNativeException ex) {
             log.error("Failed to enable dynamic key {}: {}", type, ex.getHresult().name());
@@ -221,11 +252,103 @@ public class RazerManager {
         return dynamicKeys[index];
     }
 
+    /**
+     * Gets the render target for a display.
+     * @param display The display to get the render target of.
+     * @return The Touchpad for {@link RazerAPI.TargetDisplay#WIDGET}, otherwise the matching dynamic key,
+     *         or null if that key has not been enabled.
+     */
+    public RenderTarget getRenderTarget(final RazerAPI.TargetDisplay display) {
+        if (display == RazerAPI.TargetDisplay.WIDGET)
+            return touchpad;
+
+        return dynamicKeys[display.ordinal() - 1];
+    }
+
+    /**
+     * Draws a set of frames to several displays at once, for example when switching pages.
+     * The frames are converted in parallel on the common ForkJoin pool,
+     * after which the native uploads are issued back to back on the calling thread.
+     * @param frames Images to draw, keyed by the display to draw them to.
+     *               Dynamic keys have to be enabled before frames can be drawn to them.
+     * @throws RazerNativeException If a native render call fails,
+     *                              all frames are still uploaded before the first failure is thrown.
+     */
+    public void drawFrames(final Map<RazerAPI.TargetDisplay, BufferedImage> frames) throws RazerNativeException {
+        final Map<RazerAPI.TargetDisplay, RenderTarget> targets =
+                new EnumMap<RazerAPI.TargetDisplay, RenderTarget>(RazerAPI.TargetDisplay.class);
+
+        for (final RazerAPI.TargetDisplay display : frames.keySet()) {
+            final RenderTarget target = getRenderTarget(display);
+            if (target == null)
+                throw new IllegalArgumentException(String.format("Dynamic key for %s has not been enabled", display));
+            targets.put(display, target);
+        }
+
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(targets.size());
+        for (final Map.Entry<RazerAPI.TargetDisplay, RenderTarget> entry : targets.entrySet()) {
+            final RenderTarget target = entry.getValue();
+            final BufferedImage image = frames.get(entry.getKey());
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    target.writeFrame(image);
+                    return null;
+                }
+            });
+        }
+
+        // EnumMap iterates in display order, giving a consistent lock order across batches
+        final List<RenderTarget> locked = new ArrayList<RenderTarget>(targets.size());
+        try {
+            for (final RenderTarget target : targets.values()) {
+                target.lockFrame();
+                locked.add(target);
+            }
+
+            log.debug("Converting {} frames in parallel", tasks.size());
+
+            for (final Future<Void> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while converting frames", ex);
+                } catch (final ExecutionException ex) {
+                    final Throwable cause = ex.getCause();
+                    if (cause instanceof RuntimeException)
+                        throw (RuntimeException) cause;
+                    throw new IllegalStateException("Failed to convert frame", cause);
+                }
+            }
+
+            RazerNativeException failure = null;
+
+            for (final RenderTarget target : targets.values()) {
+                try {
+                    target.uploadFrame(false);
+                } catch (final RazerNativeException ex) {
+                    log.error("Failed to upload frame to {}: {}", target.getTargetDisplay(), ex.getHresult().name());
+                    if (failure == null)
+                        failure = ex;
+                }
+            }
+
+            if (failure != null)
+                throw failure;
+        } finally {
+            for (final RenderTarget target : locked)
+                target.unlockFrame();
+        }
+    }
+
     public void disableDynamicKey(final RazerAPI.DynamicKeyType type) {
         final int index = type.ordinal() - 1;
         final DynamicKey dk = dynamicKeys[index];
-        if (dk != null)
+        if (dk != null) {
             dk.disable();
+            dk.dispose();
+        }
         dynamicKeys[index] = null;
     }
 
@@ -379,11 +502,27 @@ public class RazerManager {
 
         final int processId = dwProcessID.intValue();
 
+        if (eventType == RazerAPI.AppEventType.DEACTIVATED)
+            setRenderTargetsSuspended(true);
+        else if (eventType == RazerAPI.AppEventType.ACTIVATED)
+            setRenderTargetsSuspended(false);
+
         onAppEvent(eventType, appEventMode, processId);
 
         return result.getVal();
     }
 
+    private void setRenderTargetsSuspended(final boolean suspend) {
+        log.debug("{} timed rendering", suspend ? "Suspending" : "Resuming");
+
+        touchpad.setSuspended(suspend);
+
+        for (final DynamicKey dk : dynamicKeys) {
+            if (dk != null)
+                dk.setSuspended(suspend);
+        }
+    }
+
     // Dynamic key event handler
     private int dynamicKeyCallbackFunction(final int dynamicKeyType, final int dynamicKeyState) {
         final RazerAPI.Hresult result = RazerAPI.Hresult.RZSB_OK;
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.integration.Renderer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+
+/**
+ * Keeps a copy of a component for {@link RenderMethod#DIRTY_REGION} render loops.
+ * Dirty regions are painted on the event dispatch thread into the renderer's surface for the component,
+ * then copied into a staging surface the render thread converts from. The render thread never reads
+ * a surface Swing is painting into, and the two threads only wait for each other while a region is copied
+ * or converted.
+ * <p>
+ * The staging surface and the staged region are guarded by the monitor of this object,
+ * the render thread must hold it while converting.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class RegionSurface {
+    private final Component component;
+    private final RenderMetrics metrics;
+
+    private BufferedImage staging;
+
+    /**
+     * Union of the regions copied into the staging surface since the render thread last took them.
+     */
+    private final Rectangle staged;
+
+    RegionSurface(final Component component, final RenderMetrics metrics) {
+        this.component = component;
+        this.metrics = metrics;
+        staged = new Rectangle();
+    }
+
+    /**
+     * Paints a region of the component and stages it for the render thread, called on the event dispatch thread.
+     * @param region Region to paint, relative to the component.
+     * @param imageType Type of the surface, {@link BufferedImage#TYPE_USHORT_565_RGB} or
+     *                  {@link BufferedImage#TYPE_INT_RGB}.
+     */
+    void paint(final Rectangle region, final int imageType) {
+        final int width = component.getWidth();
+        final int height = component.getHeight();
+
+        // A new staging surface needs the whole component, whatever the renderer's surface still holds
+        final boolean resized;
+        synchronized (this) {
+            resized = staging == null || staging.getWidth() != width || staging.getHeight() != height
+                      || staging.getType() != imageType;
+        }
+        if (resized)
+            region.setBounds(0, 0, width, height);
+
+        final long start = System.nanoTime();
+        final BufferedImage painted = Renderer.renderRegion(component, region, imageType);
+        metrics.recordPaint(System.nanoTime() - start);
+
+        if (region.isEmpty())
+            return;
+
+        synchronized (this) {
+            if (resized)
+                staging = new BufferedImage(width, height, imageType);
+
+            copy(painted, staging, region);
+
+            if (staged.isEmpty())
+                staged.setBounds(region);
+            else
+                staged.add(region);
+        }
+    }
+
+    /**
+     * Gets the staging surface, the caller must hold the monitor of this object.
+     * @return The staging surface, null if nothing has been painted yet.
+     */
+    BufferedImage getStaging() {
+        return staging;
+    }
+
+    /**
+     * Takes the region staged since the last call, the caller must hold the monitor of this object.
+     * @return The staged region, empty if nothing has been staged.
+     */
+    Rectangle takeStagedRegion() {
+        final Rectangle region = new Rectangle(staged);
+        staged.setSize(0, 0);
+        return region;
+    }
+
+    private static void copy(final BufferedImage from, final BufferedImage to, final Rectangle region) {
+        final DataBuffer source = from.getRaster().getDataBuffer();
+        final DataBuffer dest = to.getRaster().getDataBuffer();
+        final Object sourceData = source instanceof DataBufferInt ? ((DataBufferInt) source).getData()
+                                                                  : ((DataBufferUShort) source).getData();
+        final Object destData = dest instanceof DataBufferInt ? ((DataBufferInt) dest).getData()
+                                                              : ((DataBufferUShort) dest).getData();
+        final int stride = from.getWidth();
+
+        for (int y = region.y; y < region.y + region.height; y++) {
+            final int offset = y * stride + region.x;
+            System.arraycopy(sourceData, offset, destData, offset, region.width);
+        }
+    }
+}
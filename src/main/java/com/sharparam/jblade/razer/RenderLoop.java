@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.integration.RepaintListener;
+import com.sharparam.jblade.integration.RepaintTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a render target updated with the contents of a component.
+ * With {@link RenderMethod#POLLING} the component is rendered at a fixed rate,
+ * with {@link RenderMethod#EVENT} it is only rendered after Swing has requested a repaint of it,
+ * never more often than the configured rate. Components are painted on the event dispatch thread.
+ * {@link RenderMethod#DIRTY_REGION} works like events, but repaints only the regions Swing has repainted
+ * into a persistent surface, so only the changed pixels are painted and converted.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class RenderLoop implements RepaintListener {
+    private final Logger log;
+
+    private final RenderTarget target;
+    private final Component component;
+    private final RenderMethod method;
+    private final long intervalNanos;
+
+    private final AtomicBoolean renderScheduled;
+    private final Runnable renderTask;
+
+    /**
+     * Set while a paint is queued on the event dispatch thread, so a slow event dispatch thread
+     * is never handed more than one.
+     */
+    private final AtomicBoolean paintQueued;
+    private final Runnable paintTask;
+
+    private volatile long lastRenderNanos;
+    private volatile boolean running;
+
+    /**
+     * Surface the dirty regions are painted into, only used with {@link RenderMethod#DIRTY_REGION}.
+     * Kept here rather than in the posted frame so regions are not lost when a posted frame is replaced.
+     */
+    private final RegionSurface regionSurface;
+
+    private ScheduledFuture<?> pollingFuture;
+
+    RenderLoop(final RenderTarget target, final Component component, final RenderMethod method, final int fps) {
+        if (fps <= 0)
+            throw new IllegalArgumentException("fps must be positive");
+
+        log = LogManager.getLogger();
+
+        this.target = target;
+        this.component = component;
+        this.method = method;
+        intervalNanos = TimeUnit.SECONDS.toNanos(1) / fps;
+
+        regionSurface = method == RenderMethod.DIRTY_REGION ? new RegionSurface(component, target.getMetrics())
+                                                            : null;
+        renderScheduled = new AtomicBoolean();
+        renderTask = new Runnable() {
+            @Override
+            public void run() {
+                render();
+            }
+        };
+        paintQueued = new AtomicBoolean();
+        paintTask = new Runnable() {
+            @Override
+            public void run() {
+                paint();
+            }
+        };
+    }
+
+    RenderMethod getMethod() {
+        return method;
+    }
+
+    Component getComponent() {
+        return component;
+    }
+
+    RegionSurface getRegionSurface() {
+        return regionSurface;
+    }
+
+    synchronized void start() {
+        log.debug("Starting {} render loop for {}", method, target.getTargetDisplay());
+
+        running = true;
+
+        if (method == RenderMethod.POLLING) {
+            pollingFuture = RenderScheduler.getExecutor().scheduleAtFixedRate(renderTask, 0, intervalNanos,
+                                                                              TimeUnit.NANOSECONDS);
+        } else {
+            RepaintTracker.getInstance().addRepaintListener(component, this);
+
+            // The first frame covers the whole component, painted on the event dispatch thread like the rest
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    regionRepainted(component, 0, 0, component.getWidth(), component.getHeight());
+                }
+            });
+        }
+    }
+
+    synchronized void stop() {
+        log.debug("Stopping {} render loop for {}", method, target.getTargetDisplay());
+
+        running = false;
+
+        if (pollingFuture != null) {
+            pollingFuture.cancel(false);
+            pollingFuture = null;
+        }
+
+        if (method != RenderMethod.POLLING)
+            RepaintTracker.getInstance().removeRepaintListener(component, this);
+    }
+
+    @Override
+    public void regionRepainted(final Component root, final int x, final int y, final int width, final int height) {
+        if (!running)
+            return;
+
+        if (method == RenderMethod.DIRTY_REGION) {
+            final int imageType = RenderTarget.getSurfaceType(target.getDitherMode());
+            regionSurface.paint(new Rectangle(x, y, width, height), imageType);
+        }
+
+        if (!renderScheduled.compareAndSet(false, true))
+            return;
+
+        // Repaints arriving while a render is already scheduled are covered by that render
+        final long delay = Math.max(0, lastRenderNanos + intervalNanos - System.nanoTime());
+        RenderScheduler.getExecutor().schedule(renderTask, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void render() {
+        renderScheduled.set(false);
+
+        if (!running)
+            return;
+
+        lastRenderNanos = System.nanoTime();
+        if (method == RenderMethod.DIRTY_REGION)
+            target.postDirtyRegion(this);
+        else if (paintQueued.compareAndSet(false, true))
+            SwingUtilities.invokeLater(paintTask);
+    }
+
+    /**
+     * Paints the component and posts it to the target, called on the event dispatch thread.
+     */
+    private void paint() {
+        paintQueued.set(false);
+
+        if (running)
+            target.postFrame(component);
+    }
+}
@@ -38,5 +38,6 @@ import com.sharparam.jblade.annotations.APIComponent;
 @APIComponent
 public enum RenderMethod {
     EVENT,
-    POLLING
+    POLLING,
+    DIRTY_REGION
 }
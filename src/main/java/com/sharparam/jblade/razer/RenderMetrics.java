@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.metrics.HistogramSnapshot;
+import com.sharparam.jblade.metrics.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Timing of the stages a render target puts frames through: painting Swing components,
+ * converting images to RGB565, and uploading through RzSBRenderBuffer,
+ * plus the interval between consecutive uploads to show how steady the frame rate is.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RenderMetrics implements RenderMetricsMXBean {
+    private final RenderTarget target;
+
+    private final LatencyHistogram paint;
+    private final LatencyHistogram convert;
+    private final LatencyHistogram upload;
+    private final LatencyHistogram frameInterval;
+
+    /**
+     * Time of the last upload, only touched with the frame lock of the target held.
+     */
+    private long lastUploadNanos;
+
+    /**
+     * Name these metrics are registered under, null while not registered. Guarded by this.
+     */
+    private ObjectName registeredName;
+
+    RenderMetrics(final RenderTarget target) {
+        this.target = target;
+
+        paint = new LatencyHistogram();
+        convert = new LatencyHistogram();
+        upload = new LatencyHistogram();
+        frameInterval = new LatencyHistogram();
+    }
+
+    /**
+     * Gets the time spent painting components for frames.
+     * @return Snapshot of the paint times, in nanoseconds.
+     */
+    @Override
+    @APIComponent
+    public HistogramSnapshot getPaint() {
+        return paint.snapshot();
+    }
+
+    /**
+     * Gets the time spent converting or decompressing images into the frame buffer.
+     * @return Snapshot of the conversion times, in nanoseconds.
+     */
+    @Override
+    @APIComponent
+    public HistogramSnapshot getConvert() {
+        return convert.snapshot();
+    }
+
+    /**
+     * Gets the time spent in RzSBRenderBuffer, including failed calls.
+     * @return Snapshot of the upload times, in nanoseconds.
+     */
+    @Override
+    @APIComponent
+    public HistogramSnapshot getUpload() {
+        return upload.snapshot();
+    }
+
+    /**
+     * Gets the time between the starts of consecutive successful uploads.
+     * @return Snapshot of the frame intervals, in nanoseconds.
+     */
+    @Override
+    @APIComponent
+    public HistogramSnapshot getFrameInterval() {
+        return frameInterval.snapshot();
+    }
+
+    @Override
+    @APIComponent
+    public long getUploadedFrameCount() {
+        return target.getUploadedFrameCount();
+    }
+
+    @Override
+    @APIComponent
+    public long getSkippedFrameCount() {
+        return target.getSkippedFrameCount();
+    }
+
+    @Override
+    @APIComponent
+    public long getDroppedFrameCount() {
+        return target.getDroppedFrameCount();
+    }
+
+    @Override
+    @APIComponent
+    public double getEffectiveFps() {
+        return target.getEffectiveFps();
+    }
+
+    /**
+     * Clears all histograms, the frame counters of the target are kept.
+     */
+    @Override
+    @APIComponent
+    public void reset() {
+        paint.reset();
+        convert.reset();
+        upload.reset();
+        frameInterval.reset();
+    }
+
+    void recordPaint(final long nanos) {
+        paint.record(nanos);
+    }
+
+    void recordConvert(final long nanos) {
+        convert.record(nanos);
+    }
+
+    /**
+     * Records an upload, the caller must hold the frame lock of the target.
+     * @param start Time the upload started, from System.nanoTime.
+     * @param end Time the upload returned, from System.nanoTime.
+     * @param succeeded True if the upload succeeded.
+     */
+    void recordUpload(final long start, final long end, final boolean succeeded) {
+        upload.record(end - start);
+
+        if (!succeeded)
+            return;
+
+        if (lastUploadNanos != 0)
+            frameInterval.record(start - lastUploadNanos);
+
+        lastUploadNanos = start;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     * Metrics of a target that was not disposed are replaced, with a warning.
+     */
+    synchronized void register() {
+        if (registeredName != null)
+            return;
+
+        final Logger log = LogManager.getLogger();
+
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName("com.sharparam.jblade:type=RenderTarget,name="
+                                                   + target.getTargetDisplay());
+
+            try {
+                server.registerMBean(this, name);
+            } catch (final InstanceAlreadyExistsException ex) {
+                log.warn("Replacing render metrics of a {} target that was not disposed", target.getTargetDisplay());
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+
+            registeredName = name;
+        } catch (final JMException ex) {
+            log.warn("Failed to register render metrics for {}: {}", target.getTargetDisplay(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they are registered.
+     */
+    synchronized void unregister() {
+        if (registeredName == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (final InstanceNotFoundException ignored) {
+            // Already replaced or removed by someone else
+        } catch (final JMException ex) {
+            LogManager.getLogger().warn("Failed to unregister render metrics for {}: {}",
+                                        target.getTargetDisplay(), ex.getMessage());
+        }
+
+        registeredName = null;
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.Rgb565Image;
+import com.sharparam.jblade.razer.exceptions.RazerNativeException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional queue between callers and the render targets, for applications where several parts update
+ * the same targets independently. Commands are collected for one tick, after which only the last command
+ * for each target and state is executed, all of them in one pass on the queue's own device thread.
+ * Commands that were replaced before being executed are counted as superseded.
+ * <p>
+ * Commands are grouped by the {@link RazerAPI.TargetDisplay} of their target. Frames drawn to a target
+ * and images set for it share one slot, except on dynamic keys, where the up and down images each have
+ * their own slot next to the drawn frame. Surviving commands run in the order they were last submitted.
+ * <p>
+ * Errors are logged and counted, they are not reported to the caller.
+ * Images passed to the queue must not be modified until the queue has been flushed.
+ * After {@link #shutdown()} the queue rejects new commands and flushes with an {@link IllegalStateException}.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RenderQueue {
+    private static final AtomicLong queueCount = new AtomicLong();
+
+    private final Logger log;
+
+    private final long tickNanos;
+
+    private final ScheduledExecutorService executor;
+    private final Runnable flushTask;
+
+    /**
+     * Commands waiting for the next tick, guarded by itself.
+     */
+    private final LinkedHashMap<Slot, Command> pending;
+    private boolean flushScheduled;
+
+    private final AtomicLong submittedCommands;
+    private final AtomicLong executedCommands;
+    private final AtomicLong supersededCommands;
+    private final AtomicLong failedCommands;
+
+    /**
+     * Creates a render queue.
+     * @param tick Time commands are collected for before they are executed.
+     * @param unit Unit of the tick argument.
+     */
+    @APIComponent
+    public RenderQueue(final long tick, final TimeUnit unit) {
+        if (tick < 0)
+            throw new IllegalArgumentException("tick can't be negative");
+
+        log = LogManager.getLogger();
+        tickNanos = unit.toNanos(tick);
+
+        final String name = "JBlade render queue " + queueCount.incrementAndGet();
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        flushTask = new Runnable() {
+            @Override
+            public void run() {
+                flushPending();
+            }
+        };
+
+        pending = new LinkedHashMap<Slot, Command>();
+
+        submittedCommands = new AtomicLong();
+        executedCommands = new AtomicLong();
+        supersededCommands = new AtomicLong();
+        failedCommands = new AtomicLong();
+    }
+
+    /**
+     * Queues setting the image of a target from an image file, on dynamic keys this sets both states.
+     * @param target The target to set the image of.
+     * @param image Path to the image file.
+     */
+    @APIComponent
+    public void setImage(final RenderTarget target, final String image) {
+        if (target instanceof DynamicKey) {
+            setImages((DynamicKey) target, image, image);
+            return;
+        }
+
+        submit(new Command(target, null) {
+            @Override
+            void execute() throws RazerNativeException {
+                target.setImage(image);
+            }
+        });
+    }
+
+    /**
+     * Queues setting the image of a dynamic key state from an image file.
+     * @param key The dynamic key.
+     * @param image Path to the image file.
+     * @param state The state to set the image for, up or down.
+     */
+    @APIComponent
+    public void setImage(final DynamicKey key, final String image, final RazerAPI.DynamicKeyState state) {
+        if (state != RazerAPI.DynamicKeyState.UP && state != RazerAPI.DynamicKeyState.DOWN)
+            throw new IllegalArgumentException("State can only be up or down");
+
+        submit(new Command(key, state) {
+            @Override
+            void execute() throws RazerNativeException {
+                key.setImage(image, state);
+            }
+        });
+    }
+
+    /**
+     * Queues setting the images of both states of a dynamic key from image files.
+     * @param key The dynamic key.
+     * @param image Path to the image shown when the key is up.
+     * @param pressedImage Path to the image shown when the key is pressed.
+     */
+    @APIComponent
+    public void setImages(final DynamicKey key, final String image, final String pressedImage) {
+        setImage(key, image, RazerAPI.DynamicKeyState.UP);
+        setImage(key, pressedImage, RazerAPI.DynamicKeyState.DOWN);
+    }
+
+    /**
+     * Queues setting the image of a dynamic key state from RGB565 pixels.
+     * @param key The dynamic key.
+     * @param image The image to set.
+     * @param state The state to set the image for, up or down.
+     */
+    @APIComponent
+    public void setImage(final DynamicKey key, final Rgb565Image image, final RazerAPI.DynamicKeyState state) {
+        if (state != RazerAPI.DynamicKeyState.UP && state != RazerAPI.DynamicKeyState.DOWN)
+            throw new IllegalArgumentException("State can only be up or down");
+
+        key.checkImage(image);
+
+        submit(new Command(key, state) {
+            @Override
+            void execute() throws RazerNativeException {
+                key.setImage(image, state);
+            }
+        });
+    }
+
+    /**
+     * Queues setting the images of both states of a dynamic key from RGB565 pixels.
+     * @param key The dynamic key.
+     * @param image The image shown when the key is up.
+     * @param pressedImage The image shown when the key is pressed.
+     */
+    @APIComponent
+    public void setImages(final DynamicKey key, final Rgb565Image image, final Rgb565Image pressedImage) {
+        setImage(key, image, RazerAPI.DynamicKeyState.UP);
+        setImage(key, pressedImage, RazerAPI.DynamicKeyState.DOWN);
+    }
+
+    /**
+     * Queues drawing an image to a target.
+     * @param target The target to draw to.
+     * @param image The image to draw, must have the same dimensions as the target.
+     */
+    @APIComponent
+    public void drawImage(final RenderTarget target, final BufferedImage image) {
+        submit(new Command(target, null) {
+            @Override
+            void execute() throws RazerNativeException {
+                target.drawImage(image);
+            }
+        });
+    }
+
+    /**
+     * Queues drawing an RGB565 image to a target.
+     * @param target The target to draw to.
+     * @param image The image to draw, must have the same dimensions as the target.
+     */
+    @APIComponent
+    public void drawImage(final RenderTarget target, final Rgb565Image image) {
+        target.checkImage(image);
+
+        submit(new Command(target, null) {
+            @Override
+            void execute() throws RazerNativeException {
+                target.drawImage(image);
+            }
+        });
+    }
+
+    /**
+     * Executes all queued commands now instead of at the end of the tick, and waits for them to finish.
+     * @throws InterruptedException If the calling thread was interrupted while waiting.
+     * @throws IllegalStateException If the queue has been shut down.
+     */
+    @APIComponent
+    public void flush() throws InterruptedException {
+        checkRunning();
+
+        try {
+            executor.submit(flushTask).get();
+        } catch (final RejectedExecutionException ex) {
+            throw new IllegalStateException("Render queue has been shut down", ex);
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException("Flushing the render queue failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Stops the device thread, commands still queued are dropped.
+     */
+    @APIComponent
+    public void shutdown() {
+        executor.shutdownNow();
+
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    @APIComponent
+    public long getTick(final TimeUnit unit) {
+        return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @APIComponent
+    public long getSubmittedCommandCount() {
+        return submittedCommands.get();
+    }
+
+    @APIComponent
+    public long getExecutedCommandCount() {
+        return executedCommands.get();
+    }
+
+    /**
+     * Gets the number of commands that were replaced by a newer command for the same target and state
+     * before being executed, each one a native call saved.
+     * @return Number of superseded commands.
+     */
+    @APIComponent
+    public long getSupersededCommandCount() {
+        return supersededCommands.get();
+    }
+
+    @APIComponent
+    public long getFailedCommandCount() {
+        return failedCommands.get();
+    }
+
+    private void checkRunning() {
+        if (executor.isShutdown())
+            throw new IllegalStateException("Render queue has been shut down");
+    }
+
+    private void submit(final Command command) {
+        checkRunning();
+
+        submittedCommands.incrementAndGet();
+
+        synchronized (pending) {
+            // Remove first so the command moves to the end of the execution order
+            if (pending.remove(command.slot) != null)
+                supersededCommands.incrementAndGet();
+
+            pending.put(command.slot, command);
+
+            if (flushScheduled)
+                return;
+
+            flushScheduled = true;
+        }
+
+        try {
+            executor.schedule(flushTask, tickNanos, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException ex) {
+            // Shut down between the check above and scheduling, the command will never run
+            throw new IllegalStateException("Render queue has been shut down", ex);
+        }
+    }
+
+    private void flushPending() {
+        final List<Command> commands;
+
+        synchronized (pending) {
+            flushScheduled = false;
+            if (pending.isEmpty())
+                return;
+
+            commands = new ArrayList<Command>(pending.values());
+            pending.clear();
+        }
+
+        for (final Command command : commands) {
+            try {
+                command.execute();
+                executedCommands.incrementAndGet();
+            } catch (final RazerNativeException ex) {
+                failedCommands.incrementAndGet();
+                log.error("Queued command for {} failed", command.slot, ex);
+            } catch (final RuntimeException ex) {
+                failedCommands.incrementAndGet();
+                log.error("Unexpected exception while executing queued command for " + command.slot, ex);
+            }
+        }
+    }
+
+    /**
+     * Target and state a command applies to, a newer command for the same slot supersedes an older one.
+     */
+    private static final class Slot {
+        private final RazerAPI.TargetDisplay display;
+        private final RazerAPI.DynamicKeyState state;
+
+        private Slot(final RazerAPI.TargetDisplay display, final RazerAPI.DynamicKeyState state) {
+            this.display = display;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Slot))
+                return false;
+
+            final Slot other = (Slot) obj;
+            return display == other.display && state == other.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return display.hashCode() * 31 + (state == null ? 0 : state.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return state == null ? display.toString() : display + " (" + state + ")";
+        }
+    }
+
+    private abstract static class Command {
+        private final Slot slot;
+
+        private Command(final RenderTarget target, final RazerAPI.DynamicKeyState state) {
+            slot = new Slot(target.getTargetDisplay(), state);
+        }
+
+        abstract void execute() throws RazerNativeException;
+    }
+}
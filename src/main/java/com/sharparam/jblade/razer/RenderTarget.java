@@ -1,14 +1,32 @@
 package com.sharparam.jblade.razer;
 
 import com.sharparam.jblade.annotations.APIComponent;
-import com.sharparam.jblade.integration.Renderer;
+import com.sharparam.jblade.imaging.Animation;
+import com.sharparam.jblade.imaging.AssetPack;
+import com.sharparam.jblade.imaging.CompressedFrame;
+import com.sharparam.jblade.imaging.DitherMode;
+import com.sharparam.jblade.imaging.FrameSource;
+import com.sharparam.jblade.imaging.ImageCache;
+import com.sharparam.jblade.imaging.PixelConverter;
+import com.sharparam.jblade.imaging.Rgb565Canvas;
+import com.sharparam.jblade.imaging.Rgb565Image;
 import com.sharparam.jblade.razer.exceptions.RazerNativeException;
 import com.sun.jna.Memory;
-import com.sun.jna.Pointer;
 import com.sun.jna.platform.win32.WinDef;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Created on 2014-07-19.
@@ -16,16 +34,157 @@ import java.awt.image.BufferedImage;
  * @author Sharparam
  */
 public abstract class RenderTarget {
+    private final Logger log;
+
     private final int displayHeight;
     private final int displayWidth;
     private final RazerAPI.TargetDisplay targetDisplay;
     private final RazerAPI razerAPI;
 
+    /**
+     * Guards the frame buffer, only one frame can be written and uploaded at a time.
+     */
+    private final ReentrantLock frameLock;
+
+    /**
+     * Off-heap RGB565 buffer that is handed to RzSBRenderBuffer, allocated once per target.
+     */
+    private final Memory frameBuffer;
+
+    /**
+     * View of {@link #frameBuffer} used to hash frame contents.
+     */
+    private final ByteBuffer frameView;
+
+    /**
+     * RGB565 pixel view of {@link #frameBuffer}.
+     */
+    private final ShortBuffer framePixels;
+
+    private final RazerAPI.BufferParams.ByValue bufferParams;
+
+    /**
+     * Canvas drawing into {@link #frameBuffer}, handed out by {@link #beginDraw()}.
+     */
+    private final Rgb565Canvas canvas;
+
+    private final AtomicLong uploadedFrames;
+    private final AtomicLong skippedFrames;
+
+    /**
+     * Hash of the frame last uploaded to the device, only meaningful if {@link #lastFrameValid} is true.
+     */
+    private long lastFrameHash;
+    private boolean lastFrameValid;
+
+    /**
+     * Single-slot mailbox used in asynchronous mode, a newly posted frame replaces any frame not yet rendered.
+     */
+    private final AtomicReference<PendingFrame> mailbox;
+    private final AtomicLong frameSequence;
+    private final AtomicLong replacedFrames;
+
+    /**
+     * Guards {@link #presentedSequence}, {@link #failedSequence} and {@link #asyncError}.
+     */
+    private final Object presentLock;
+    private long presentedSequence;
+    private long failedSequence;
+    private Exception asyncError;
+
+    private volatile boolean asyncRendering;
+
+    private RenderLoop renderLoop;
+
+    private AnimationPlayer animationPlayer;
+    private StreamPlayer streamPlayer;
+    private boolean suspended;
+
+    private volatile ImageCache imageCache;
+
+    private volatile DitherMode ditherMode;
+
+    private final RenderMetrics metrics;
+    private final PaintSurfaces surfaces;
+
+    private final FramePacer pacer;
+
+    /**
+     * Set when an upload was dropped by the pacer and the frame buffer holds a frame the device has not shown.
+     * Only touched with the frame lock held.
+     */
+    private boolean frameDropped;
+
+    /**
+     * Sequence number of the posted frame held back by the pacer in the frame buffer, 0 if there is none.
+     * It is reported as presented or failed once the deferred upload has been attempted.
+     * Only touched with the frame lock held.
+     */
+    private long droppedSequence;
+
+    /**
+     * Component whose dirty-region surface the frame buffer currently mirrors, null if anything else
+     * has been written since. Only touched with the frame lock held.
+     */
+    private Component regionSource;
+
+    /**
+     * Dither mode the frame buffer was converted with while mirroring regionSource.
+     * Only touched with the frame lock held.
+     */
+    private DitherMode regionDitherMode;
+
+    /**
+     * Number of times the frame buffer was written or handed out by {@link #beginDraw()}.
+     * Only touched with the frame lock held.
+     */
+    private long frameWrites;
+    private boolean flushScheduled;
+    private final Runnable flushTask;
+
     protected RenderTarget(final RazerAPI.TargetDisplay target, final int height, final int width) {
+        log = LogManager.getLogger();
+
         targetDisplay = target;
         displayHeight = height;
         displayWidth = width;
         razerAPI = RazerAPI.INSTANCE;
+
+        frameLock = new ReentrantLock();
+
+        final int size = width * height * 2; // 2 == size of ushort
+        frameBuffer = new Memory(size);
+        frameBuffer.clear();
+        frameView = frameBuffer.getByteBuffer(0, size).order(ByteOrder.nativeOrder());
+        framePixels = frameView.asShortBuffer();
+
+        bufferParams = new RazerAPI.BufferParams.ByValue();
+        bufferParams.pixelType = RazerAPI.PixelType.RGB565;
+        bufferParams.dataSize = new WinDef.UINT(size);
+        bufferParams.ptrData = frameBuffer;
+
+        ditherMode = DitherMode.NONE;
+
+        canvas = new Rgb565Canvas(new Rgb565Image(width, height, framePixels));
+
+        uploadedFrames = new AtomicLong();
+        skippedFrames = new AtomicLong();
+
+        mailbox = new AtomicReference<PendingFrame>();
+        frameSequence = new AtomicLong();
+        replacedFrames = new AtomicLong();
+        presentLock = new Object();
+
+        pacer = new FramePacer();
+        flushTask = new Runnable() {
+            @Override
+            public void run() {
+                RenderThread.getInstance().schedule(RenderTarget.this);
+            }
+        };
+
+        metrics = new RenderMetrics(this);
+        surfaces = new PaintSurfaces(metrics);
     }
 
     @APIComponent
@@ -46,41 +205,1037 @@ public abstract class RenderTarget {
         return targetDisplay;
     }
 
+    /**
+     * Gets the number of frames that have been sent to the device through RzSBRenderBuffer.
+     * @return Number of uploaded frames.
+     */
+    @APIComponent
+    public long getUploadedFrameCount() {
+        return uploadedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames that were not sent to the device because they
+     * were identical to the frame already showing.
+     * @return Number of skipped frames.
+     */
+    @APIComponent
+    public long getSkippedFrameCount() {
+        return skippedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames posted in asynchronous mode that were replaced
+     * by a newer frame before they could be rendered.
+     * @return Number of replaced frames.
+     */
+    @APIComponent
+    public long getReplacedFrameCount() {
+        return replacedFrames.get();
+    }
+
+    /**
+     * Gets the paint, conversion and upload timings of this target,
+     * also available over JMX as com.sharparam.jblade:type=RenderTarget,name=&lt;target display&gt;.
+     * @return The metrics of this target.
+     */
+    @APIComponent
+    public RenderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the number of frames dropped to keep within the latency budget.
+     * @return Number of dropped frames.
+     */
+    @APIComponent
+    public long getDroppedFrameCount() {
+        return pacer.getDroppedFrameCount();
+    }
+
+    /**
+     * Gets the rate frames have recently been uploaded at, falling towards zero when no frames are uploaded.
+     * @return Uploads per second.
+     */
+    @APIComponent
+    public double getEffectiveFps() {
+        return pacer.getEffectiveFps();
+    }
+
+    /**
+     * Gets the latency budget.
+     * @param unit Unit to return the budget in.
+     * @return The budget, 0 if adaptive frame dropping is disabled.
+     */
+    @APIComponent
+    public long getLatencyBudget(final TimeUnit unit) {
+        return unit.convert(pacer.getBudget(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enables adaptive frame dropping, keeping the time a frame spends on its way to the device within a budget.
+     * While RzSBRenderBuffer takes longer than the budget, the minimum interval between uploads is raised
+     * and frames arriving sooner are dropped instead of waiting for the device. The interval drops back once
+     * uploads speed up. The most recent frame is always shown, a dropped frame is uploaded later
+     * by the render thread if no newer frame replaces it.
+     * Forced frames are never dropped.
+     * @param budget The budget, 0 to disable adaptive frame dropping.
+     * @param unit Unit of the budget.
+     */
+    @APIComponent
+    public void setLatencyBudget(final long budget, final TimeUnit unit) {
+        pacer.setBudget(unit.toNanos(budget));
+    }
+
+    @APIComponent
+    public boolean isAsyncRendering() {
+        return asyncRendering;
+    }
+
+    /**
+     * Enables or disables asynchronous rendering.
+     * While enabled, {@link #drawFrame(JFrame)} and {@link #drawImage(BufferedImage)} behave like
+     * {@link #postFrame(Component)} and {@link #postImage(BufferedImage)}, returning as soon as the frame
+     * has been handed to the render thread. Errors from the native call are then reported through
+     * {@link #awaitFrame(long, long, TimeUnit)}.
+     * @param enabled True to enable asynchronous rendering, false to render on the calling thread.
+     */
+    @APIComponent
+    public void setAsyncRendering(final boolean enabled) {
+        asyncRendering = enabled;
+    }
+
+    @APIComponent
+    public DitherMode getDitherMode() {
+        return ditherMode;
+    }
+
+    /**
+     * Sets how images drawn to this target are dithered when converted to RGB565.
+     * Dithering hides banding in gradients at some cost per frame,
+     * DitherBenchmark in the jmh profile measures that cost for each mode.
+     * While dithering, Swing components are painted into a 24-bit surface and dithered like images,
+     * render loops dither only their dirty region, so error diffusion restarts at the edge of the region.
+     * Images already in RGB565 are not affected.
+     * @param mode The dither mode, {@link DitherMode#NONE} by default.
+     */
+    @APIComponent
+    public void setDitherMode(final DitherMode mode) {
+        if (mode == null)
+            throw new IllegalArgumentException("mode can't be null");
+
+        ditherMode = mode;
+    }
+
+    @APIComponent
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Sets the cache used when setting images by path.
+     * With a cache set, image files are decoded once and pushed through RzSBRenderBuffer
+     * instead of having the SDK read the file on every call.
+     * Files that can't be decoded, or don't match the display size, are still handed to the SDK by path.
+     * @param cache The cache to use, or null to always hand image paths to the SDK.
+     */
+    @APIComponent
+    public void setImageCache(final ImageCache cache) {
+        imageCache = cache;
+    }
+
+    /**
+     * Gets the method of the currently running render loop.
+     * @return The render method in use, or null if no render loop is running.
+     */
+    @APIComponent
+    public synchronized RenderMethod getRenderMethod() {
+        return renderLoop == null ? null : renderLoop.getMethod();
+    }
+
+    /**
+     * Starts keeping this target updated with the contents of a component, replacing any running render loop.
+     * All render loops share one scheduler thread, components are painted on the event dispatch thread
+     * and frames are drawn through the render thread used for asynchronous rendering.
+     * @param component The component to render, its size must match the display of this target.
+     * @param method {@link RenderMethod#POLLING} to render at a fixed rate,
+     *               {@link RenderMethod#EVENT} to render only when the component has been repainted,
+     *               {@link RenderMethod#DIRTY_REGION} to repaint and convert only the regions Swing marked dirty.
+     * @param fps Frames per second to render at when polling, and the maximum rate when using events.
+     */
+    @APIComponent
+    public synchronized void startRendering(final Component component, final RenderMethod method, final int fps) {
+        stopRendering();
+        renderLoop = new RenderLoop(this, component, method, fps);
+        renderLoop.start();
+    }
+
+    /**
+     * Stops the running render loop, if any.
+     */
+    @APIComponent
+    public synchronized void stopRendering() {
+        if (renderLoop == null)
+            return;
+
+        renderLoop.stop();
+        renderLoop = null;
+    }
+
+    /**
+     * Starts playing an animation on this target, stopping any animation already playing.
+     * Frames are posted to the render thread as in asynchronous mode.
+     * @param animation The animation to play, its size must match the display of this target.
+     * @param loop True to restart the animation when it ends, false to stop on the last frame.
+     * @return The player, which can be used to pause, resume or stop playback.
+     */
+    @APIComponent
+    public synchronized AnimationPlayer playAnimation(final Animation animation, final boolean loop) {
+        stopAnimation();
+        stopStream();
+        animationPlayer = new AnimationPlayer(this, animation, loop);
+        animationPlayer.setSuspended(suspended);
+        animationPlayer.start();
+        return animationPlayer;
+    }
+
+    /**
+     * Stops the animation playing on this target, if any.
+     */
+    @APIComponent
+    public synchronized void stopAnimation() {
+        if (animationPlayer == null)
+            return;
+
+        animationPlayer.stop();
+        animationPlayer = null;
+    }
+
+    /**
+     * Starts streaming a frame source to this target with four frames of read-ahead,
+     * stopping any animation or stream already playing.
+     * @param source The source to play, its size must match the display of this target.
+     *               It is closed when playback stops.
+     * @param loop True to rewind the source when it ends, false to stop on the last frame.
+     * @return The player, which can be used to pause, resume or stop playback.
+     */
+    @APIComponent
+    public StreamPlayer playStream(final FrameSource source, final boolean loop) {
+        return playStream(source, loop, 4);
+    }
+
+    /**
+     * Starts streaming a frame source to this target, stopping any animation or stream already playing.
+     * @param source The source to play, its size must match the display of this target.
+     *               It is closed when playback stops.
+     * @param loop True to rewind the source when it ends, false to stop on the last frame.
+     * @param bufferCount Number of frames to read ahead, at least two.
+     * @return The player, which can be used to pause, resume or stop playback.
+     */
+    @APIComponent
+    public synchronized StreamPlayer playStream(final FrameSource source, final boolean loop, final int bufferCount) {
+        stopAnimation();
+        stopStream();
+        streamPlayer = new StreamPlayer(this, source, loop, bufferCount);
+        streamPlayer.setSuspended(suspended);
+        streamPlayer.start();
+        return streamPlayer;
+    }
+
+    /**
+     * Stops the stream playing on this target, if any.
+     */
+    @APIComponent
+    public synchronized void stopStream() {
+        if (streamPlayer == null)
+            return;
+
+        streamPlayer.stop();
+        streamPlayer = null;
+    }
+
+    /**
+     * Publishes the metrics of this target over JMX, called by the manager once the target has been constructed.
+     */
+    void registerMetrics() {
+        metrics.register();
+    }
+
+    /**
+     * Stops all timed rendering on this target and removes its metrics from JMX,
+     * called by the manager when the target is replaced or the manager is stopped.
+     */
+    void dispose() {
+        stopRendering();
+        stopAnimation();
+        stopStream();
+        metrics.unregister();
+    }
+
+    /**
+     * Suspends or resumes timed rendering on this target,
+     * called when the application is deactivated or activated by the SwitchBlade framework.
+     * @param suspend True to suspend, false to resume.
+     */
+    synchronized void setSuspended(final boolean suspend) {
+        suspended = suspend;
+
+        if (animationPlayer != null)
+            animationPlayer.setSuspended(suspend);
+
+        if (streamPlayer != null)
+            streamPlayer.setSuspended(suspend);
+    }
+
     @APIComponent
     public void drawFrame(final JFrame frame) throws RazerNativeException {
-        final BufferedImage image = Renderer.renderComponent(frame);
-        drawImage(image);
+        if (asyncRendering) {
+            postFrame(frame);
+            return;
+        }
+
+        // Paint before locking, the event dispatch thread may itself be waiting for the frame lock
+        final BufferedImage image = surfaces.paint(frame, getSurfaceType(ditherMode));
+        try {
+            checkImage(image);
+
+            frameLock.lock();
+            try {
+                writeImage(image);
+                renderFrame(false);
+            } finally {
+                frameLock.unlock();
+            }
+        } finally {
+            surfaces.release(image);
+        }
     }
 
-    // TODO: Test this
+    /**
+     * Draws an image to this target.
+     * The pixels are converted straight from the image's backing array into the
+     * off-heap RGB565 buffer owned by this target, see {@link PixelConverter} for the supported fast paths.
+     * If the image is identical to the frame last uploaded to this target, the native call is skipped.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @throws RazerNativeException If the native render call fails.
+     */
     @APIComponent
     public void drawImage(final BufferedImage image) throws RazerNativeException {
-        if (image.getType() != BufferedImage.TYPE_USHORT_565_RGB)
-            throw new IllegalArgumentException("BufferedImage needs to be of type RGB565");
+        drawImage(image, false);
+    }
+
+    /**
+     * Draws an image to this target.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded,
+     *              use this to re-push the display after the device has been reconnected.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void drawImage(final BufferedImage image, final boolean force) throws RazerNativeException {
+        if (asyncRendering) {
+            postImage(image, force);
+            return;
+        }
+
+        checkImage(image);
+
+        frameLock.lock();
+        try {
+            writeImage(image);
+            renderFrame(force);
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    /**
+     * Draws an image that has already been converted to RGB565, this is a single bulk copy into the frame buffer.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void drawImage(final Rgb565Image image) throws RazerNativeException {
+        drawImage(image, false);
+    }
+
+    /**
+     * Draws an image that has already been converted to RGB565.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void drawImage(final Rgb565Image image, final boolean force) throws RazerNativeException {
+        if (asyncRendering) {
+            postImage(image, force);
+            return;
+        }
+
+        checkImage(image);
+
+        frameLock.lock();
+        try {
+            writeImage(image);
+            renderFrame(force);
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    /**
+     * Draws a compressed frame, it is decompressed straight into the frame buffer of this target.
+     * @param frame The frame to draw, must have the same dimensions as this target.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void drawImage(final CompressedFrame frame) throws RazerNativeException {
+        drawImage(frame, false);
+    }
 
-        final RazerAPI.BufferParams.ByValue params = new RazerAPI.BufferParams.ByValue();
-        params.pixelType = RazerAPI.PixelType.RGB565;
+    /**
+     * Draws a compressed frame, it is decompressed straight into the frame buffer of this target.
+     * @param frame The frame to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void drawImage(final CompressedFrame frame, final boolean force) throws RazerNativeException {
+        if (asyncRendering) {
+            postImage(frame, force);
+            return;
+        }
+
+        checkImage(frame);
+
+        frameLock.lock();
+        try {
+            writeImage(frame);
+            renderFrame(force);
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    /**
+     * Posts a compressed frame to be decompressed and drawn by the render thread.
+     * If a previously posted frame has not been rendered yet, it is replaced by this one.
+     * @param frame The frame to draw, must have the same dimensions as this target.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final CompressedFrame frame) {
+        return postImage(frame, false);
+    }
+
+    /**
+     * Posts a compressed frame to be decompressed and drawn by the render thread.
+     * @param frame The frame to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final CompressedFrame frame, final boolean force) {
+        checkImage(frame);
+        return postPendingFrame(frame, force);
+    }
+
+    /**
+     * Starts drawing straight into the frame buffer of this target and locks it for the calling thread.
+     * The canvas holds whatever was last drawn through the frame buffer, an image set from a file
+     * is not in it. Must be followed by {@link #endDraw()} on the same thread, preferably in a finally block.
+     * @return Canvas drawing into the frame buffer, the same instance is returned every time.
+     */
+    @APIComponent
+    public Rgb565Canvas beginDraw() {
+        frameLock.lock();
+        regionSource = null;
+        frameWrites++;
+        canvas.resetClip();
+        return canvas;
+    }
+
+    /**
+     * Gets the number of times the frame buffer was written, {@link #beginDraw()} counts as one write.
+     * Lets a caller drawing through the canvas tell whether anything else has written in between.
+     * Must be called with the frame buffer locked by {@link #beginDraw()}.
+     * @return Number of writes to the frame buffer.
+     */
+    long getFrameWriteCount() {
+        return frameWrites;
+    }
+
+    /**
+     * Uploads what was drawn since {@link #beginDraw()} and unlocks the frame buffer.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void endDraw() throws RazerNativeException {
+        endDraw(false);
+    }
+
+    /**
+     * Uploads what was drawn since {@link #beginDraw()} and unlocks the frame buffer.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void endDraw(final boolean force) throws RazerNativeException {
+        if (!frameLock.isHeldByCurrentThread())
+            throw new IllegalStateException("endDraw called without beginDraw");
+
+        try {
+            renderFrame(force);
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    /**
+     * Posts an image to be drawn by the render thread.
+     * If a previously posted frame has not been rendered yet, it is replaced by this one.
+     * The image must not be modified until the frame has been presented.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final BufferedImage image) {
+        return postImage(image, false);
+    }
+
+    /**
+     * Posts an image to be drawn by the render thread.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final BufferedImage image, final boolean force) {
+        checkImage(image);
+        return postPendingFrame(image, force);
+    }
+
+    /**
+     * Posts an RGB565 image to be drawn by the render thread.
+     * If a previously posted frame has not been rendered yet, it is replaced by this one.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final Rgb565Image image) {
+        return postImage(image, false);
+    }
+
+    /**
+     * Posts an RGB565 image to be drawn by the render thread.
+     * @param image The image to draw, must have the same dimensions as this target.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postImage(final Rgb565Image image, final boolean force) {
+        checkImage(image);
+        return postPendingFrame(image, force);
+    }
+
+    /**
+     * Paints a component and posts it to be drawn by the render thread.
+     * The component is painted on the event dispatch thread, when called from another thread this waits for it.
+     * If a previously posted frame has not been rendered yet, it is replaced by this one.
+     * @param component The component to draw.
+     * @return Sequence number of the frame, to be used with {@link #awaitFrame(long, long, TimeUnit)}.
+     */
+    @APIComponent
+    public long postFrame(final Component component) {
+        final BufferedImage surface = surfaces.paint(component, getSurfaceType(ditherMode));
+        return postPendingFrame(surface, surface, false);
+    }
+
+    /**
+     * Posts the dirty region collected by a render loop to be painted and drawn by the render thread.
+     * The region is taken from the loop when the frame is rendered, so replacing the frame loses nothing.
+     */
+    long postDirtyRegion(final RenderLoop loop) {
+        return postPendingFrame(loop, false);
+    }
+
+    /**
+     * Gets the sequence number of the most recent posted frame that has reached the device.
+     * @return Sequence number of the presented frame, 0 if no posted frame has been presented.
+     */
+    @APIComponent
+    public long getPresentedSequence() {
+        synchronized (presentLock) {
+            return presentedSequence;
+        }
+    }
+
+    /**
+     * Waits until the posted frame with the given sequence number, or a frame posted after it,
+     * has reached the device.
+     * @param sequence Sequence number returned when posting the frame.
+     * @param timeout Maximum time to wait.
+     * @param unit Unit of the timeout argument.
+     * @return True if the frame or a newer one was presented, false if the wait timed out.
+     * @throws RazerNativeException If rendering the frame failed and no newer frame has been presented since.
+     *                              Other errors while rendering, such as a component of the wrong size,
+     *                              are rethrown as they are.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    @APIComponent
+    public boolean awaitFrame(final long sequence, final long timeout, final TimeUnit unit)
+            throws RazerNativeException, InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (presentLock) {
+            while (presentedSequence < sequence) {
+                if (failedSequence >= sequence) {
+                    if (asyncError instanceof RuntimeException)
+                        throw (RuntimeException) asyncError;
+                    throw (RazerNativeException) asyncError;
+                }
+
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return false;
+
+                TimeUnit.NANOSECONDS.timedWait(presentLock, remaining);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets whether the render thread is done with a posted frame,
+     * either because it or a newer frame was presented, or because rendering failed.
+     * @param sequence Sequence number returned when posting the frame.
+     * @return True if the frame will not be read again.
+     */
+    boolean isFrameFinished(final long sequence) {
+        synchronized (presentLock) {
+            return presentedSequence >= sequence || failedSequence >= sequence;
+        }
+    }
+
+    private long postPendingFrame(final Object content, final boolean force) {
+        return postPendingFrame(content, null, force);
+    }
+
+    private long postPendingFrame(final Object content, final BufferedImage surface, final boolean force) {
+        final long sequence = frameSequence.incrementAndGet();
+        final PendingFrame previous = mailbox.getAndSet(new PendingFrame(sequence, content, surface, force));
+
+        // Only queue the target when the mailbox was empty, the render thread picks up whatever is in it by then
+        if (previous == null) {
+            RenderThread.getInstance().schedule(this);
+        } else {
+            replacedFrames.incrementAndGet();
+            if (previous.surface != null)
+                surfaces.release(previous.surface);
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Renders the frame currently waiting in the mailbox, called from the render thread.
+     */
+    void renderPendingFrame() {
+        final PendingFrame frame = mailbox.getAndSet(null);
+        if (frame == null) {
+            flushDroppedFrame();
+            return;
+        }
+
+        frameLock.lock();
+        try {
+            if (frame.content instanceof BufferedImage) {
+                // Components are painted at their own size, posted images were checked when posted
+                if (frame.surface != null)
+                    checkImage(frame.surface);
+                writeImage((BufferedImage) frame.content);
+            } else if (frame.content instanceof Rgb565Image) {
+                writeImage((Rgb565Image) frame.content);
+            } else if (frame.content instanceof CompressedFrame) {
+                writeImage((CompressedFrame) frame.content);
+            } else {
+                writeDirtyRegion((RenderLoop) frame.content);
+            }
+
+            // A dropped frame stays pending until flushDroppedFrame has uploaded it
+            if (renderFrame(frame.force))
+                markPresented(frame.sequence);
+            else
+                droppedSequence = frame.sequence;
+        } catch (final RazerNativeException ex) {
+            markFailed(frame.sequence, ex);
+        } catch (final RuntimeException ex) {
+            // Waiters and stream players must not wait for a frame that will never be presented
+            markFailed(frame.sequence, ex);
+            throw ex;
+        } finally {
+            frameLock.unlock();
+
+            if (frame.surface != null)
+                surfaces.release(frame.surface);
+        }
+    }
+
+    private void markPresented(final long sequence) {
+        synchronized (presentLock) {
+            if (sequence > presentedSequence)
+                presentedSequence = sequence;
+            presentLock.notifyAll();
+        }
+    }
+
+    private void markFailed(final long sequence, final Exception ex) {
+        synchronized (presentLock) {
+            if (sequence > failedSequence)
+                failedSequence = sequence;
+            asyncError = ex;
+            presentLock.notifyAll();
+        }
+    }
 
-        final int size = image.getWidth() * image.getHeight() * 2; // 2 == size of ushort
-        params.dataSize = new WinDef.UINT(size);
+    /**
+     * Reports the frame held back by the pacer as presented, once the frame buffer has reached the device
+     * or has been replaced by newer content. Frames replaced before being shown are reported as presented,
+     * the same as frames replaced in the mailbox.
+     */
+    private void presentDroppedFrame() {
+        if (droppedSequence == 0)
+            return;
 
-        final int[] data = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, 0);
+        markPresented(droppedSequence);
+        droppedSequence = 0;
+    }
 
-        //final WinDef.USHORT[] apiData = new WinDef.USHORT[data.length];
-        //for (int i = 0; i < data.length; i++)
-        //    apiData[i] = new WinDef.USHORT(data[i]);
+    /**
+     * Uploads a frame the pacer dropped earlier, if no newer frame has been uploaded since.
+     * Called from the render thread once the upload interval has passed.
+     * A posted frame waiting on this upload is reported as presented or failed by {@link #renderFrame(boolean)}.
+     */
+    private void flushDroppedFrame() {
+        frameLock.lock();
+        try {
+            flushScheduled = false;
+            if (frameDropped)
+                renderFrame(false);
+        } catch (final RazerNativeException ex) {
+            log.error("Failed to upload dropped frame to {}", targetDisplay, ex);
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    void checkImage(final Rgb565Image image) {
+        if (image.getWidth() != displayWidth || image.getHeight() != displayHeight)
+            throw new IllegalArgumentException(String.format("Image needs to be %dx%d, was %dx%d",
+                                                             displayWidth, displayHeight,
+                                                             image.getWidth(), image.getHeight()));
+    }
+
+    private void checkImage(final CompressedFrame frame) {
+        if (frame.getWidth() != displayWidth || frame.getHeight() != displayHeight)
+            throw new IllegalArgumentException(String.format("Frame needs to be %dx%d, was %dx%d",
+                                                             displayWidth, displayHeight,
+                                                             frame.getWidth(), frame.getHeight()));
+    }
+
+    private void checkImage(final BufferedImage image) {
+        if (image.getWidth() != displayWidth || image.getHeight() != displayHeight)
+            throw new IllegalArgumentException(String.format("BufferedImage needs to be %dx%d, was %dx%d",
+                                                             displayWidth, displayHeight,
+                                                             image.getWidth(), image.getHeight()));
+    }
 
-        final Pointer dataPtr = new Memory(data.length);
-        dataPtr.write(0, data, 0, data.length);
+    /**
+     * Converts the region a render loop has painted since its last frame into the frame buffer.
+     * Falls back to the whole surface if the frame buffer was written by anything else since the last region.
+     */
+    private void writeDirtyRegion(final RenderLoop loop) {
+        final Component component = loop.getComponent();
+        final RegionSurface surface = loop.getRegionSurface();
+        final DitherMode mode = ditherMode;
 
-        params.ptrData = dataPtr;
+        synchronized (surface) {
+            final BufferedImage image = surface.getStaging();
+            if (image == null)
+                return;
+
+            checkImage(image);
+
+            final Rectangle region = surface.takeStagedRegion();
+            if (regionSource != component || regionDitherMode != mode)
+                region.setBounds(0, 0, displayWidth, displayHeight);
+
+            regionSource = component;
+            regionDitherMode = mode;
+            frameWrites++;
+
+            if (region.isEmpty())
+                return;
+
+            final long start = System.nanoTime();
+            PixelConverter.convert(image, region.x, region.y, region.width, region.height,
+                                   framePixels, region.y * displayWidth + region.x, displayWidth, mode);
+            metrics.recordConvert(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the type of surface to paint components into, painting straight into RGB565 would leave
+     * nothing to dither.
+     */
+    static int getSurfaceType(final DitherMode mode) {
+        return mode == DitherMode.NONE ? BufferedImage.TYPE_USHORT_565_RGB : BufferedImage.TYPE_INT_RGB;
+    }
 
-        final RazerAPI.Hresult result = razerAPI.RzSBRenderBuffer(RazerAPI.TargetDisplay.WIDGET, params);
+    private void writeImage(final BufferedImage image) {
+        regionSource = null;
+        frameWrites++;
+        final long start = System.nanoTime();
+        PixelConverter.convert(image, 0, 0, displayWidth, displayHeight, framePixels, 0, displayWidth, ditherMode);
+        metrics.recordConvert(System.nanoTime() - start);
+    }
+
+    private void writeImage(final CompressedFrame frame) {
+        regionSource = null;
+        frameWrites++;
+        final long start = System.nanoTime();
+        frame.decode(framePixels, 0, displayWidth);
+        metrics.recordConvert(System.nanoTime() - start);
+    }
+
+    private void writeImage(final Rgb565Image image) {
+        regionSource = null;
+        frameWrites++;
+        final long start = System.nanoTime();
+        final ShortBuffer dest = framePixels.duplicate();
+        final ShortBuffer src = image.getPixels();
+        final int stride = image.getStride();
+
+        if (stride == displayWidth) {
+            src.limit(displayWidth * displayHeight);
+            dest.put(src);
+        } else {
+            for (int y = 0; y < displayHeight; y++) {
+                src.limit(y * stride + displayWidth).position(y * stride);
+                dest.put(src);
+            }
+        }
+
+        metrics.recordConvert(System.nanoTime() - start);
+    }
+
+    /**
+     * Uploads the frame buffer to the device, unless it matches the frame already there
+     * or the pacer drops it, in which case an upload is scheduled for later.
+     * @param force If true, the frame is uploaded even if it matches the one last uploaded or the pacer would drop it.
+     * @return True if the device shows the frame buffer, false if the upload was deferred.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    private boolean renderFrame(final boolean force) throws RazerNativeException {
+        final long hash = hashFrame();
+
+        if (!force && lastFrameValid && hash == lastFrameHash) {
+            skippedFrames.incrementAndGet();
+            frameDropped = false;
+            presentDroppedFrame();
+            return true;
+        }
+
+        final long now = System.nanoTime();
+        if (!force && pacer.drop(now)) {
+            frameDropped = true;
+            if (!flushScheduled) {
+                flushScheduled = true;
+                RenderScheduler.getExecutor().schedule(flushTask, pacer.getRemainingInterval(now),
+                                                       TimeUnit.NANOSECONDS);
+            }
+            return false;
+        }
+
+        // Whatever the device shows is unknown until the call has succeeded
+        lastFrameValid = false;
+
+        final long start = System.nanoTime();
+        final RazerAPI.Hresult result = razerAPI.RzSBRenderBuffer(targetDisplay, bufferParams);
+        final long end = System.nanoTime();
+        metrics.recordUpload(start, end, !result.isError());
+
+        if (result.isError()) {
+            final RazerNativeException ex = new RazerNativeException("RzSBRenderBuffer", result);
+            if (droppedSequence != 0) {
+                markFailed(droppedSequence, ex);
+                droppedSequence = 0;
+            }
+            throw ex;
+        }
+
+        pacer.recordUpload(start, end);
+        frameDropped = false;
+        presentDroppedFrame();
+
+        lastFrameHash = hash;
+        lastFrameValid = true;
+        uploadedFrames.incrementAndGet();
+        return true;
+    }
 
-        if (result.isError())
-            throw new RazerNativeException("RzSBRenderBuffer", result);
+    /**
+     * Computes a 64-bit hash of the current contents of the frame buffer.
+     * The mixing step is the xxHash64 round function, which is cheap enough to run on every frame.
+     * @return Hash of the frame buffer.
+     */
+    private long hashFrame() {
+        return hash(frameView);
+    }
+
+    /**
+     * Computes the hash used by {@link #hashFrame()} over the bytes of a buffer from index 0 to its limit,
+     * regardless of its position.
+     * @param buffer Native-order view of the pixel data.
+     * @return Hash of the buffer contents.
+     */
+    static long hash(final ByteBuffer buffer) {
+        final int size = buffer.limit();
+        final int longEnd = size & ~7;
+
+        long hash = size * 0x9E3779B185EBCA87L;
+
+        for (int i = 0; i < longEnd; i += 8)
+            hash = Long.rotateLeft(hash + buffer.getLong(i) * 0xC2B2AE3D27D4EB4FL, 31) * 0x9E3779B185EBCA87L;
+
+        for (int i = longEnd; i < size; i++)
+            hash = Long.rotateLeft(hash ^ (buffer.get(i) & 0xFF) * 0x27D4EB2F165667C5L, 11) * 0x9E3779B185EBCA87L;
+
+        hash ^= hash >>> 33;
+        hash *= 0xC2B2AE3D27D4EB4FL;
+        hash ^= hash >>> 29;
+
+        return hash;
+    }
+
+    /**
+     * Forgets the frame last uploaded to this target, making sure the next frame is sent to the device.
+     * Must be called whenever the display is changed by other means than the frame buffer.
+     */
+    void invalidateFrame() {
+        frameLock.lock();
+        try {
+            lastFrameValid = false;
+            frameDropped = false;
+            presentDroppedFrame();
+        } finally {
+            frameLock.unlock();
+        }
+    }
+
+    /**
+     * Gets an image through the image cache of this target.
+     * @param path Path to the image file.
+     * @return The decoded image, or null if no cache is set or the image can't be drawn from the cache.
+     */
+    Rgb565Image loadCachedImage(final String path) {
+        final ImageCache cache = imageCache;
+        if (cache == null)
+            return null;
+
+        final Rgb565Image image;
+        try {
+            image = cache.get(path);
+        } catch (final IOException ex) {
+            log.warn("Failed to decode {}, falling back to the SDK: {}", path, ex.getMessage());
+            return null;
+        }
+
+        if (image.getWidth() != displayWidth || image.getHeight() != displayHeight) {
+            log.warn("{} is {}x{}, expected {}x{}, falling back to the SDK", path,
+                     image.getWidth(), image.getHeight(), displayWidth, displayHeight);
+            return null;
+        }
+
+        return image;
+    }
+
+    /**
+     * Locks the frame buffer of this target, used when several targets are rendered as one batch.
+     * Must be balanced with {@link #unlockFrame()}.
+     */
+    void lockFrame() {
+        frameLock.lock();
+    }
+
+    void unlockFrame() {
+        frameLock.unlock();
+    }
+
+    /**
+     * Converts an image into the frame buffer without uploading it.
+     * The caller must hold the frame lock, or run on behalf of a thread that does.
+     * @param image The image to convert.
+     */
+    void writeFrame(final BufferedImage image) {
+        checkImage(image);
+        writeImage(image);
+    }
+
+    /**
+     * Uploads the frame buffer, the caller must hold the frame lock.
+     * @param force True to upload even if the frame matches the one last uploaded.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    void uploadFrame(final boolean force) throws RazerNativeException {
+        renderFrame(force);
     }
 
     @APIComponent
     public abstract void setImage(final String image) throws RazerNativeException;
+
+    /**
+     * Sets the image from RGB565 pixels instead of an image file.
+     * @param image The image, must match the size of the display.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public abstract void setImage(final Rgb565Image image) throws RazerNativeException;
+
+    /**
+     * Sets the image from an asset pack entry, the pixels are drawn straight from the mapped pack.
+     * @param entry The pack entry, its image must match the size of the display.
+     * @throws RazerNativeException If the native render call fails.
+     */
+    @APIComponent
+    public void setImage(final AssetPack.Entry entry) throws RazerNativeException {
+        setImage(entry.getImage());
+    }
+
+    /**
+     * Frame waiting in the mailbox of a target, holds either an image, RGB565 pixels or a component to paint.
+     */
+    private static final class PendingFrame {
+        private final long sequence;
+
+        /**
+         * What to draw: a BufferedImage, an Rgb565Image, a CompressedFrame, or a RenderLoop with a dirty region.
+         */
+        private final Object content;
+
+        /**
+         * Surface a component was painted into, released once the frame has been converted or replaced.
+         */
+        private final BufferedImage surface;
+        private final boolean force;
+
+        private PendingFrame(final long sequence, final Object content, final BufferedImage surface,
+                             final boolean force) {
+            this.sequence = sequence;
+            this.content = content;
+            this.surface = surface;
+            this.force = force;
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Thread that drains the frame mailboxes of render targets running in asynchronous mode.
+ * A target is queued at most once per pending frame, no matter how many frames are posted to it.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+final class RenderThread implements Runnable {
+    private static RenderThread instance;
+
+    private final Logger log;
+
+    private final BlockingQueue<RenderTarget> queue;
+
+    private RenderThread() {
+        log = LogManager.getLogger();
+        queue = new LinkedBlockingQueue<RenderTarget>();
+    }
+
+    static synchronized RenderThread getInstance() {
+        if (instance == null) {
+            instance = new RenderThread();
+            final Thread thread = new Thread(instance, "JBlade render thread");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Queues a target that has a frame waiting in its mailbox.
+     * @param target The target to render.
+     */
+    void schedule(final RenderTarget target) {
+        queue.add(target);
+    }
+
+    @Override
+    public void run() {
+        log.debug("Render thread started");
+
+        while (true) {
+            final RenderTarget target;
+
+            try {
+                target = queue.take();
+            } catch (final InterruptedException ex) {
+                log.debug("Render thread interrupted, stopping");
+                return;
+            }
+
+            try {
+                target.renderPendingFrame();
+            } catch (final RuntimeException ex) {
+                log.error("Unexpected exception while rendering to " + target.getTargetDisplay(), ex);
+            }
+        }
+    }
+}
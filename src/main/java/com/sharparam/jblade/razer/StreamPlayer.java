@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import com.sharparam.jblade.annotations.APIComponent;
+import com.sharparam.jblade.imaging.FrameSource;
+import com.sharparam.jblade.imaging.Rgb565Image;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a {@link FrameSource} to a render target at the frame rate of the source.
+ * A read-ahead thread fills a fixed ring of off-heap frame buffers while the shared render scheduler
+ * posts them to the target, so memory use does not depend on the length of the sequence.
+ * When no frame has been read in time the previous frame stays on the display and an underrun is counted.
+ * Playback is suspended while the application is deactivated by the SwitchBlade framework.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class StreamPlayer {
+    private final Logger log;
+
+    private final RenderTarget target;
+    private final FrameSource source;
+    private final boolean loop;
+
+    /**
+     * Slots ready to be read into, and slots holding frames ready to be shown.
+     */
+    private final BlockingQueue<Slot> free;
+    private final BlockingQueue<Slot> ready;
+
+    /**
+     * Slots posted to the target that may not have been copied to its frame buffer yet.
+     * Only touched from the scheduler thread.
+     */
+    private final Queue<Slot> posted;
+
+    private final Thread reader;
+    private final Runnable tick;
+
+    private final AtomicLong shownFrames;
+    private final AtomicLong underruns;
+
+    private volatile boolean endReached;
+    private volatile IOException error;
+
+    private boolean running;
+    private boolean paused;
+    private boolean suspended;
+
+    private ScheduledFuture<?> ticks;
+
+    StreamPlayer(final RenderTarget target, final FrameSource source, final boolean loop, final int bufferCount) {
+        if (source.getWidth() != target.getDisplayWidth() || source.getHeight() != target.getDisplayHeight())
+            throw new IllegalArgumentException(String.format("Stream needs to be %dx%d, was %dx%d",
+                                                             target.getDisplayWidth(), target.getDisplayHeight(),
+                                                             source.getWidth(), source.getHeight()));
+        if (bufferCount < 2)
+            throw new IllegalArgumentException("At least two buffers are needed");
+
+        log = LogManager.getLogger();
+
+        this.target = target;
+        this.source = source;
+        this.loop = loop;
+
+        free = new ArrayBlockingQueue<Slot>(bufferCount);
+        ready = new ArrayBlockingQueue<Slot>(bufferCount);
+        posted = new ArrayDeque<Slot>(bufferCount);
+
+        for (int i = 0; i < bufferCount; i++)
+            free.add(new Slot(source.getWidth(), source.getHeight()));
+
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readAhead();
+            }
+        }, "JBlade stream reader (" + target.getTargetDisplay() + ")");
+        reader.setDaemon(true);
+
+        tick = new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+
+        shownFrames = new AtomicLong();
+        underruns = new AtomicLong();
+    }
+
+    @APIComponent
+    public FrameSource getSource() {
+        return source;
+    }
+
+    @APIComponent
+    public boolean isLooping() {
+        return loop;
+    }
+
+    /**
+     * Gets whether the stream is still playing, paused streams count as playing.
+     * @return True if playing, false if stopped, finished or failed.
+     */
+    @APIComponent
+    public synchronized boolean isPlaying() {
+        return running;
+    }
+
+    @APIComponent
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Gets the number of frames that have been sent to the target.
+     * @return Number of shown frames.
+     */
+    @APIComponent
+    public long getShownFrameCount() {
+        return shownFrames.get();
+    }
+
+    /**
+     * Gets the number of times a frame was due but the read-ahead thread had not read it yet.
+     * @return Number of underruns.
+     */
+    @APIComponent
+    public long getUnderrunCount() {
+        return underruns.get();
+    }
+
+    /**
+     * Gets the error that stopped playback, if reading the source failed.
+     * @return The error, or null if reading has not failed.
+     */
+    @APIComponent
+    public IOException getError() {
+        return error;
+    }
+
+    @APIComponent
+    public synchronized void pause() {
+        if (!running || paused)
+            return;
+
+        paused = true;
+        halt();
+    }
+
+    @APIComponent
+    public synchronized void resume() {
+        if (!running || !paused)
+            return;
+
+        paused = false;
+        proceed();
+    }
+
+    /**
+     * Stops playback and closes the source.
+     */
+    @APIComponent
+    public synchronized void stop() {
+        if (!running)
+            return;
+
+        log.debug("Stopping stream on {}", target.getTargetDisplay());
+        finish();
+    }
+
+    synchronized void start() {
+        log.debug("Starting stream on {} with {} buffers", target.getTargetDisplay(), free.size());
+        running = true;
+        reader.start();
+        proceed();
+    }
+
+    /**
+     * Suspends or resumes playback as the application is deactivated and activated.
+     * @param suspend True when the application has been deactivated.
+     */
+    synchronized void setSuspended(final boolean suspend) {
+        if (suspend == suspended)
+            return;
+
+        suspended = suspend;
+
+        if (!running || paused)
+            return;
+
+        if (suspend)
+            halt();
+        else
+            proceed();
+    }
+
+    private void halt() {
+        if (ticks == null)
+            return;
+
+        ticks.cancel(false);
+        ticks = null;
+    }
+
+    private void proceed() {
+        if (paused || suspended || ticks != null)
+            return;
+
+        final long interval = source.getFrameInterval();
+        ticks = RenderScheduler.getExecutor().scheduleAtFixedRate(tick, 0, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private void finish() {
+        halt();
+        running = false;
+        reader.interrupt();
+
+        try {
+            source.close();
+        } catch (final IOException ex) {
+            log.warn("Failed to close stream source: {}", ex.getMessage());
+        }
+    }
+
+    private synchronized void tick() {
+        if (!running || ticks == null)
+            return;
+
+        recycle();
+
+        final Slot slot = ready.poll();
+
+        if (slot == null) {
+            if (error != null) {
+                log.error("Stream on {} failed", target.getTargetDisplay(), error);
+                finish();
+            } else if (endReached) {
+                log.debug("Stream on {} finished", target.getTargetDisplay());
+                finish();
+            } else {
+                underruns.incrementAndGet();
+            }
+            return;
+        }
+
+        slot.sequence = target.postImage(slot.image);
+        posted.add(slot);
+        shownFrames.incrementAndGet();
+    }
+
+    /**
+     * Hands slots back to the reader once the render thread is done with them.
+     */
+    private void recycle() {
+        while (!posted.isEmpty() && target.isFrameFinished(posted.peek().sequence))
+            free.add(posted.poll());
+    }
+
+    private void readAhead() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Slot slot = free.take();
+
+                if (!source.read(slot.data)) {
+                    if (!loop) {
+                        endReached = true;
+                        return;
+                    }
+
+                    source.rewind();
+                    if (!source.read(slot.data)) {
+                        endReached = true;
+                        return;
+                    }
+                }
+
+                ready.put(slot);
+            }
+        } catch (final InterruptedException ignored) {
+            // Playback was stopped
+        } catch (final IOException ex) {
+            if (running)
+                error = ex;
+        }
+    }
+
+    private static final class Slot {
+        final ByteBuffer data;
+        final Rgb565Image image;
+        long sequence;
+
+        Slot(final int width, final int height) {
+            data = ByteBuffer.allocateDirect(width * height * 2).order(ByteOrder.LITTLE_ENDIAN);
+            image = new Rgb565Image(width, height, data.asShortBuffer());
+        }
+    }
+}
@@ -30,6 +30,7 @@ package com.sharparam.jblade.razer;
 
 import com.sharparam.jblade.annotations.APIComponent;
 import com.sharparam.jblade.annotations.NativeCodeBinding;
+import com.sharparam.jblade.imaging.Rgb565Image;
 import com.sharparam.jblade.razer.events.*;
 import com.sharparam.jblade.razer.exceptions.RazerNativeException;
 import com.sharparam.jblade.razer.listeners.*;
@@ -109,8 +110,10 @@ public class Touchpad extends RenderTarget {
     }
 
     static Touchpad getInstance() throws RazerNativeException {
-        if (instance == null)
+        if (instance == null) {
             instance = new Touchpad();
+            instance.registerMetrics();
+        }
 
         return instance;
     }
@@ -206,13 +209,29 @@ public class Touchpad extends RenderTarget {
     @Override
     @APIComponent
     public void setImage(final String image) throws RazerNativeException {
+        final Rgb565Image cached = loadCachedImage(image);
+        if (cached != null) {
+            drawImage(cached);
+            currentImage = image;
+            return;
+        }
+
         final RazerAPI.Hresult result = razerAPI.RzSBSetImageTouchpad(image);
         if (result.isError())
             throw new RazerNativeException("RzSBSetImageTouchpad", result);
 
+        invalidateFrame();
+
         currentImage = image;
     }
 
+    @Override
+    @APIComponent
+    public void setImage(final Rgb565Image image) throws RazerNativeException {
+        drawImage(image);
+        currentImage = null;
+    }
+
     @APIComponent
     public void addGestureListener(final GestureListener listener) {
         gestureListeners.add(listener);
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class AssetPackTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private String writePack(final int count) throws IOException {
+        final AssetPackWriter writer = new AssetPackWriter();
+        for (int i = 0; i < count; i++)
+            writer.add("image-" + i, TestImages.randomImage(3 + i % 5, 2 + i % 3, BufferedImage.TYPE_INT_RGB, i));
+
+        final String path = folder.newFile().getPath();
+        writer.write(path);
+        return path;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final AssetPack pack = AssetPack.open(writePack(100));
+
+        assertEquals(100, pack.getImageCount());
+
+        for (int i = 0; i < 100; i++) {
+            final String name = "image-" + i;
+            assertTrue(pack.contains(name));
+
+            final AssetPack.Entry entry = pack.get(name);
+            assertNotNull(entry);
+            assertEquals(name, entry.getName());
+            TestImages.assertPixels(TestImages.randomImage(3 + i % 5, 2 + i % 3, BufferedImage.TYPE_INT_RGB, i),
+                                      entry.getImage());
+        }
+    }
+
+    @Test
+    public void missingNames() throws IOException {
+        final AssetPack pack = AssetPack.open(writePack(10));
+
+        assertFalse(pack.contains("image-10"));
+        assertNull(pack.get("image-10"));
+        assertNull(pack.get(""));
+    }
+
+    @Test
+    public void nonAsciiNames() throws IOException {
+        final AssetPackWriter writer = new AssetPackWriter();
+        writer.add("knapp-\u00e5\u00e4\u00f6", TestImages.randomImage(4, 4, BufferedImage.TYPE_INT_RGB, 7));
+        final String path = folder.newFile().getPath();
+        writer.write(path);
+
+        final AssetPack pack = AssetPack.open(path);
+        assertTrue(pack.contains("knapp-\u00e5\u00e4\u00f6"));
+        assertFalse(pack.contains("knapp-aao"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        final String path = folder.newFile().getPath();
+        RawFrame.write(TestImages.randomImage(8, 8, BufferedImage.TYPE_INT_RGB, 0), path);
+        AssetPack.open(path);
+    }
+
+    /**
+     * Points an offset field of every used index slot close to the end of the file.
+     * @param field Offset of the field in a slot.
+     * @param fromEnd Number of bytes before the end of the file to point at.
+     */
+    private static void corruptSlots(final String path, final int field, final int fromEnd) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(AssetPack.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            file.getChannel().read(header, 0);
+            final int slots = header.getInt(12);
+
+            for (int i = 0; i < slots; i++) {
+                final ByteBuffer slot = ByteBuffer.allocate(AssetPack.SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                final long offset = AssetPack.HEADER_SIZE + (long) i * AssetPack.SLOT_SIZE;
+                file.getChannel().read(slot, offset);
+                if (slot.getInt(4) == 0)
+                    continue;
+
+                slot.putInt(field, (int) file.length() - fromEnd);
+                slot.rewind();
+                file.getChannel().write(slot, offset);
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void rejectsCorruptEntries() throws IOException {
+        final String path = writePack(4);
+
+        // Point every image past the end of the file
+        corruptSlots(path, 8, 4);
+
+        final AssetPack pack = AssetPack.open(path);
+        assertTrue(pack.contains("image-0"));
+
+        try {
+            pack.get("image-0");
+            fail("Expected an IOException for an entry outside of the pack");
+        } catch (final IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("corrupt entry"));
+        }
+    }
+
+    @Test
+    public void rejectsNamesOutsideOfThePack() throws IOException {
+        final String path = writePack(4);
+
+        corruptSlots(path, 4, 1);
+
+        assertCorruptName(AssetPack.open(path));
+    }
+
+    @Test
+    public void rejectsNamesRunningPastThePack() throws IOException {
+        final String path = writePack(4);
+
+        // Point every name at the last two bytes of the file and make them a length of 0xFFFF
+        corruptSlots(path, 4, 2);
+
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            file.seek(file.length() - 2);
+            file.writeShort(0xFFFF);
+        } finally {
+            file.close();
+        }
+
+        assertCorruptName(AssetPack.open(path));
+    }
+
+    private static void assertCorruptName(final AssetPack pack) {
+        try {
+            pack.get("image-0");
+            fail("Expected an IOException for a name outside of the pack");
+        } catch (final IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("corrupt name"));
+        }
+
+        try {
+            pack.contains("image-1");
+            fail("Expected an IOException for a name outside of the pack");
+        } catch (final IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("corrupt name"));
+        }
+    }
+}
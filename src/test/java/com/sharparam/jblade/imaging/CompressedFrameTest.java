@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ShortBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class CompressedFrameTest {
+    private static void assertRoundTrip(final Rgb565Image image) {
+        final CompressedFrame frame = CompressedFrame.encode(image);
+        assertEquals(image.getWidth(), frame.getWidth());
+        assertEquals(image.getHeight(), frame.getHeight());
+        assertEquals(image.getSizeInBytes(), frame.getSize());
+
+        final Rgb565Image decoded = Rgb565Image.allocate(image.getWidth(), image.getHeight());
+        frame.decode(decoded);
+        assertSamePixels(image, decoded);
+    }
+
+    private static void assertSamePixels(final Rgb565Image expected, final Rgb565Image actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals("pixel " + x + "," + y, expected.pixelBuffer().get(y * expected.getStride() + x),
+                             actual.pixelBuffer().get(y * actual.getStride() + x));
+            }
+        }
+    }
+
+    private static Rgb565Image solid(final int width, final int height, final short pixel) {
+        final Rgb565Image image = Rgb565Image.allocate(width, height);
+        for (int i = 0; i < width * height; i++)
+            image.pixelBuffer().put(i, pixel);
+        return image;
+    }
+
+    @Test
+    public void solidFrameCompressesToAFewBytes() {
+        final Rgb565Image image = solid(800, 480, (short) 0x1234);
+        assertRoundTrip(image);
+        assertTrue(CompressedFrame.encode(image).getCompressedSize() < 16);
+    }
+
+    @Test
+    public void noiseRoundTrips() {
+        assertRoundTrip(Rgb565Image.fromImage(TestImages.randomImage(61, 17, BufferedImage.TYPE_INT_RGB, 5)));
+    }
+
+    @Test
+    public void mixedRunsAndLiteralsRoundTrip() {
+        final BufferedImage image = TestImages.randomImage(200, 50, BufferedImage.TYPE_INT_RGB, 6);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(10, 5, 120, 20);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(150, 0, 2, 50);
+        graphics.dispose();
+
+        assertRoundTrip(Rgb565Image.fromImage(image));
+    }
+
+    @Test
+    public void shortRunsRoundTrip() {
+        // Runs of one to four pixels, around the shortest run worth coding as a run
+        final Rgb565Image image = Rgb565Image.allocate(100, 1);
+        int x = 0;
+        for (int segment = 0; x < 100; segment++) {
+            final int run = segment % 4 + 1;
+            for (int i = 0; i < run && x < 100; i++, x++)
+                image.pixelBuffer().put(x, (short) segment);
+        }
+
+        assertRoundTrip(image);
+    }
+
+    @Test
+    public void longRunsRoundTrip() {
+        // Counts that need more than two bytes in the variable-length code
+        final Rgb565Image image = solid(1000, 300, (short) 0);
+        image.pixelBuffer().put(150000, (short) 1);
+        assertRoundTrip(image);
+    }
+
+    @Test
+    public void encodesRegions() {
+        final Rgb565Image source = Rgb565Image.fromImage(
+                TestImages.randomImage(40, 30, BufferedImage.TYPE_INT_RGB, 8));
+        assertRoundTrip(source.getRegion(3, 4, 20, 10));
+    }
+
+    @Test
+    public void decodesIntoRegions() {
+        final Rgb565Image image = Rgb565Image.fromImage(
+                TestImages.randomImage(20, 10, BufferedImage.TYPE_INT_RGB, 9));
+        final CompressedFrame frame = CompressedFrame.encode(image);
+
+        final Rgb565Image dest = solid(50, 30, (short) 0x7777);
+        frame.decode(dest.getRegion(5, 6, 20, 10));
+
+        assertSamePixels(image, dest.getRegion(5, 6, 20, 10));
+
+        // Pixels around the region are left alone
+        final ShortBuffer pixels = dest.pixelBuffer();
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 50; x++) {
+                if (x < 5 || x >= 25 || y < 6 || y >= 16)
+                    assertEquals((short) 0x7777, pixels.get(y * 50 + x));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsImagesOfAnotherSize() {
+        CompressedFrame.encode(solid(4, 4, (short) 0)).decode(Rgb565Image.allocate(4, 5));
+    }
+}
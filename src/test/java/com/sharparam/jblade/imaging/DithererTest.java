@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class DithererTest {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 480;
+
+    private static BufferedImage gradient() {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.BLACK, WIDTH, HEIGHT, new Color(40, 90, 200)));
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.dispose();
+        return image;
+    }
+
+    private static short[] convert(final BufferedImage image, final int x, final int y, final int width,
+                                   final int height, final DitherMode mode) {
+        final ShortBuffer dest = ByteBuffer.allocateDirect(width * height * 2)
+                                           .order(ByteOrder.nativeOrder())
+                                           .asShortBuffer();
+        PixelConverter.convert(image, x, y, width, height, dest, 0, width, mode);
+
+        final short[] pixels = new short[width * height];
+        dest.get(pixels);
+        return pixels;
+    }
+
+    @Test
+    public void noneMatchesPlainConversion() {
+        final BufferedImage image = gradient();
+        final ShortBuffer plain = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 2)
+                                            .order(ByteOrder.nativeOrder())
+                                            .asShortBuffer();
+        PixelConverter.convert(image, plain);
+
+        final short[] expected = new short[WIDTH * HEIGHT];
+        plain.get(expected);
+
+        assertArrayEquals(expected, convert(image, 0, 0, WIDTH, HEIGHT, DitherMode.NONE));
+    }
+
+    @Test
+    public void ditheringChangesGradients() {
+        final BufferedImage image = gradient();
+        final short[] plain = convert(image, 0, 0, WIDTH, HEIGHT, DitherMode.NONE);
+
+        for (final DitherMode mode : new DitherMode[] { DitherMode.ORDERED, DitherMode.ERROR_DIFFUSION }) {
+            final short[] dithered = convert(image, 0, 0, WIDTH, HEIGHT, mode);
+
+            int changed = 0;
+            for (int i = 0; i < plain.length; i++) {
+                if (plain[i] != dithered[i])
+                    changed++;
+            }
+            assertTrue(mode + " changed " + changed + " pixels", changed > plain.length / 10);
+        }
+    }
+
+    @Test
+    public void exactColorsStayExact() {
+        // Both colors are at an RGB565 level and equal to that level expanded back to 8 bits
+        final BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 300, 150);
+        graphics.setColor(new Color(0x08, 0x10, 0x18));
+        graphics.fillRect(0, 150, 300, 150);
+        graphics.dispose();
+
+        for (final DitherMode mode : DitherMode.values()) {
+            final short[] pixels = convert(image, 0, 0, 300, 300, mode);
+            for (int i = 0; i < pixels.length; i++)
+                assertEquals(mode + " pixel " + i, PixelConverter.toRgb565(image.getRGB(i % 300, i / 300)), pixels[i]);
+        }
+    }
+
+    @Test
+    public void resultDoesNotDependOnHowTheWorkIsSplit() {
+        final BufferedImage image = gradient();
+
+        for (final DitherMode mode : new DitherMode[] { DitherMode.ORDERED, DitherMode.ERROR_DIFFUSION }) {
+            // The whole frame is converted in parallel, the top 64 rows are small enough to run on this thread
+            final short[] whole = convert(image, 0, 0, WIDTH, HEIGHT, mode);
+            final short[] top = convert(image, 0, 0, WIDTH, 64, mode);
+
+            for (int i = 0; i < top.length; i++)
+                assertEquals(mode + " pixel " + i, whole[i], top[i]);
+
+            assertArrayEquals(whole, convert(image, 0, 0, WIDTH, HEIGHT, mode));
+        }
+    }
+
+    @Test
+    public void orderedRegionsMatchTheWholeImage() {
+        final BufferedImage image = gradient();
+        final short[] whole = convert(image, 0, 0, WIDTH, HEIGHT, DitherMode.ORDERED);
+        final short[] region = convert(image, 101, 37, 250, 90, DitherMode.ORDERED);
+
+        for (int y = 0; y < 90; y++) {
+            for (int x = 0; x < 250; x++)
+                assertEquals(whole[(37 + y) * WIDTH + 101 + x], region[y * 250 + x]);
+        }
+    }
+}
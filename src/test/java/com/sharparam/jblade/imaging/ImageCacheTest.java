@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class ImageCacheTest {
+    /**
+     * Size of each test image, 10x10 RGB565 pixels.
+     */
+    private static final int IMAGE_BYTES = 200;
+
+    private List<String> loads;
+    private ImageCache cache;
+
+    @Before
+    public void setUp() {
+        loads = new ArrayList<String>();
+        cache = new ImageCache(3 * IMAGE_BYTES) {
+            @Override
+            protected Rgb565Image load(final String path) throws IOException {
+                loads.add(path);
+                return Rgb565Image.allocate(10, 10);
+            }
+        };
+    }
+
+    @Test
+    public void hitsDoNotLoad() throws IOException {
+        final Rgb565Image first = cache.get("a");
+        assertSame(first, cache.get("a"));
+
+        assertEquals(1, loads.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(IMAGE_BYTES, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+
+        // Touch a, so b is now the least recently used
+        cache.get("a");
+        cache.get("d");
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3 * IMAGE_BYTES, cache.getCurrentBytes());
+
+        cache.get("b");
+        assertFalse(cache.contains("c"));
+        assertEquals(5, loads.size());
+    }
+
+    @Test
+    public void containsDoesNotTouch() throws IOException {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+
+        assertTrue(cache.contains("a"));
+        cache.get("d");
+
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void evictsAsManyAsNeeded() {
+        cache.put("a", Rgb565Image.allocate(10, 10));
+        cache.put("b", Rgb565Image.allocate(10, 10));
+        cache.put("c", Rgb565Image.allocate(10, 10));
+        cache.put("large", Rgb565Image.allocate(10, 20));
+
+        assertEquals(2, cache.getImageCount());
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("large"));
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void skipsImagesLargerThanTheCache() {
+        cache.put("a", Rgb565Image.allocate(10, 10));
+        cache.put("huge", Rgb565Image.allocate(100, 100));
+
+        assertFalse(cache.contains("huge"));
+        assertTrue(cache.contains("a"));
+        assertEquals(IMAGE_BYTES, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void replacingKeepsTheSizeRight() {
+        cache.put("a", Rgb565Image.allocate(10, 10));
+        cache.put("a", Rgb565Image.allocate(10, 5));
+
+        assertEquals(1, cache.getImageCount());
+        assertEquals(IMAGE_BYTES / 2, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void invalidate() throws IOException {
+        cache.get("a");
+        cache.get("b");
+
+        cache.invalidate("a");
+        assertFalse(cache.contains("a"));
+        assertEquals(IMAGE_BYTES, cache.getCurrentBytes());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getImageCount());
+        assertEquals(0, cache.getCurrentBytes());
+
+        cache.get("a");
+        assertEquals(3, loads.size());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class PixelConverterTest {
+    private static final int[] FAST_PATH_TYPES = {
+            BufferedImage.TYPE_USHORT_565_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR
+    };
+
+    private static ShortBuffer allocate(final int pixels) {
+        return ByteBuffer.allocateDirect(pixels * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    @Test
+    public void packsComponents() {
+        assertEquals((short) 0xFFFF, PixelConverter.toRgb565(0xFFFFFFFF));
+        assertEquals((short) 0x0000, PixelConverter.toRgb565(0xFF000000));
+        assertEquals((short) 0xF800, PixelConverter.toRgb565(0xFFFF0000));
+        assertEquals((short) 0x07E0, PixelConverter.toRgb565(0xFF00FF00));
+        assertEquals((short) 0x001F, PixelConverter.toRgb565(0xFF0000FF));
+    }
+
+    @Test
+    public void compositesAlphaOntoBlack() {
+        assertEquals((short) 0x0000, PixelConverter.toRgb565(0x00FFFFFF));
+        assertEquals(PixelConverter.toRgb565(0xFF808080), PixelConverter.toRgb565(0x80FFFFFF));
+    }
+
+    @Test
+    public void expandsBackToFullRange() {
+        assertEquals(0xFFFFFFFF, PixelConverter.toArgb((short) 0xFFFF));
+        assertEquals(0xFF000000, PixelConverter.toArgb((short) 0));
+
+        for (int pixel = 0; pixel <= 0xFFFF; pixel += 7)
+            assertEquals((short) pixel, PixelConverter.toRgb565(PixelConverter.toArgb((short) pixel)));
+    }
+
+    @Test
+    public void fastPathsMatchGetRgb() {
+        for (final int type : FAST_PATH_TYPES) {
+            assertTrue(PixelConverter.isFastPath(type));
+
+            final BufferedImage image = TestImages.randomImage(33, 19, type, type);
+            final ShortBuffer dest = allocate(33 * 19);
+            PixelConverter.convert(image, dest);
+
+            for (int y = 0; y < 19; y++) {
+                for (int x = 0; x < 33; x++) {
+                    assertEquals("type " + type + " pixel " + x + "," + y,
+                                 PixelConverter.toRgb565(image.getRGB(x, y)), dest.get(y * 33 + x));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void grayUsesTheRawSample() {
+        final BufferedImage image = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 256; x++)
+            image.getRaster().setSample(x, 0, 0, x);
+
+        final ShortBuffer dest = allocate(256);
+        PixelConverter.convert(image, dest);
+
+        for (int x = 0; x < 256; x++)
+            assertEquals(PixelConverter.toRgb565(x, x, x), dest.get(x));
+    }
+
+    @Test
+    public void otherTypesFallBackToGetRgb() {
+        assertFalse(PixelConverter.isFastPath(BufferedImage.TYPE_INT_BGR));
+
+        final BufferedImage image = TestImages.randomImage(10, 10, BufferedImage.TYPE_INT_BGR, 4);
+        final ShortBuffer dest = allocate(100);
+        PixelConverter.convert(image, dest);
+
+        for (int i = 0; i < 100; i++)
+            assertEquals(PixelConverter.toRgb565(image.getRGB(i % 10, i / 10)), dest.get(i));
+    }
+
+    @Test
+    public void convertsRegionsWithAStride() {
+        final BufferedImage image = TestImages.randomImage(30, 20, BufferedImage.TYPE_INT_RGB, 11);
+        final BufferedImage sub = image.getSubimage(4, 3, 20, 15);
+
+        final ShortBuffer dest = allocate(50 * 20);
+        for (int i = 0; i < 50 * 20; i++)
+            dest.put(i, (short) 0x5555);
+
+        // Region of a subimage, so the raster has a translated sample model as well
+        PixelConverter.convert(sub, 2, 1, 10, 5, dest, 50 * 2 + 7, 50);
+
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 50; x++) {
+                final short expected = x >= 7 && x < 17 && y >= 2 && y < 7
+                                       ? PixelConverter.toRgb565(image.getRGB(4 + 2 + x - 7, 3 + 1 + y - 2))
+                                       : (short) 0x5555;
+                assertEquals("pixel " + x + "," + y, expected, dest.get(y * 50 + x));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRegionsOutsideOfTheImage() {
+        PixelConverter.convert(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), 5, 5, 6, 5, allocate(100), 0,
+                               10);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RawFrameTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        final BufferedImage image = TestImages.randomImage(37, 21, BufferedImage.TYPE_INT_RGB, 1);
+        final String path = folder.newFile().getPath();
+
+        RawFrame.write(image, path);
+
+        assertEquals(RawFrame.getFileSize(37, 21), new File(path).length());
+        TestImages.assertPixels(image, RawFrame.map(path));
+    }
+
+    @Test
+    public void roundTripRegion() throws IOException {
+        final Rgb565Image source = Rgb565Image.fromImage(TestImages.randomImage(40, 30, BufferedImage.TYPE_INT_RGB, 2));
+        final Rgb565Image region = source.getRegion(5, 7, 20, 10);
+        final String path = folder.newFile().getPath();
+
+        RawFrame.write(region, path);
+        final Rgb565Image read = RawFrame.map(path);
+
+        assertEquals(20, read.getWidth());
+        assertEquals(10, read.getHeight());
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++)
+                assertEquals(region.pixelBuffer().get(y * region.getStride() + x), read.pixelBuffer().get(y * 20 + x));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        final File file = folder.newFile();
+        final RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.write(new byte[64]);
+        } finally {
+            out.close();
+        }
+
+        RawFrame.map(file.getPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsEmptyFiles() throws IOException {
+        RawFrame.map(folder.newFile().getPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedFiles() throws IOException {
+        final String path = folder.newFile().getPath();
+        RawFrame.write(TestImages.randomImage(16, 16, BufferedImage.TYPE_INT_RGB, 3), path);
+
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            file.setLength(file.length() - 2);
+        } finally {
+            file.close();
+        }
+
+        RawFrame.map(path);
+    }
+}
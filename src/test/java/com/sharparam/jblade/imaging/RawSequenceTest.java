@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.imaging;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RawSequenceTest {
+    private static final int WIDTH = 12;
+    private static final int HEIGHT = 9;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private String writeSequence(final int frames) throws IOException {
+        final String path = folder.newFile().getPath();
+        final RawSequenceWriter writer = new RawSequenceWriter(path, WIDTH, HEIGHT, 40, TimeUnit.MILLISECONDS);
+        try {
+            for (int i = 0; i < frames; i++) {
+                final BufferedImage image = TestImages.randomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB, i);
+                if (i % 2 == 0)
+                    writer.write(image);
+                else
+                    writer.write(Rgb565Image.fromImage(image));
+            }
+            assertEquals(frames, writer.getFrameCount());
+        } finally {
+            writer.close();
+        }
+        return path;
+    }
+
+    private static void assertFrame(final int index, final ByteBuffer frame) {
+        final BufferedImage expected = TestImages.randomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB, index);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("frame " + index + " pixel " + x + "," + y,
+                             PixelConverter.toRgb565(expected.getRGB(x, y)), frame.getShort((y * WIDTH + x) * 2));
+            }
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final RawSequence sequence = RawSequence.open(writeSequence(3));
+        try {
+            assertEquals(WIDTH, sequence.getWidth());
+            assertEquals(HEIGHT, sequence.getHeight());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(40), sequence.getFrameInterval());
+            assertEquals(3, sequence.getFrameCount());
+
+            final ByteBuffer frame = ByteBuffer.allocate(WIDTH * HEIGHT * 2).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < 3; i++) {
+                assertTrue(sequence.read(frame));
+                assertFrame(i, frame);
+            }
+            assertFalse(sequence.read(frame));
+
+            sequence.rewind();
+            assertTrue(sequence.read(frame));
+            assertFrame(0, frame);
+        } finally {
+            sequence.close();
+        }
+    }
+
+    @Test
+    public void ignoresTruncatedLastFrame() throws IOException {
+        final String path = writeSequence(2);
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            file.setLength(file.length() - 1);
+        } finally {
+            file.close();
+        }
+
+        final RawSequence sequence = RawSequence.open(path);
+        try {
+            assertEquals(1, sequence.getFrameCount());
+
+            final ByteBuffer frame = ByteBuffer.allocate(WIDTH * HEIGHT * 2).order(ByteOrder.LITTLE_ENDIAN);
+            assertTrue(sequence.read(frame));
+            assertFalse(sequence.read(frame));
+        } finally {
+            sequence.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        final String path = folder.newFile().getPath();
+        RawFrame.write(TestImages.randomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB, 0), path);
+        RawSequence.open(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsShortFiles() throws IOException {
+        RawSequence.open(folder.newFile().getPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFramesOfAnotherSize() throws IOException {
+        final RawSequenceWriter writer = new RawSequenceWriter(folder.newFile().getPath(), WIDTH, HEIGHT, 40,
+                                                               TimeUnit.MILLISECONDS);
+        try {
+            writer.write(new BufferedImage(WIDTH + 1, HEIGHT, BufferedImage.TYPE_INT_RGB));
+        } finally {
+            writer.close();
+        }
+    }
+}
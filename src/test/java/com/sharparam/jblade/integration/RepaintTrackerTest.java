@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.integration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests installing the repaint tracker around an application's RepaintManager.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RepaintTrackerTest {
+    private RepaintManager original;
+    private RecordingManager custom;
+
+    @Before
+    public void installCustomManager() {
+        original = RepaintManager.currentManager((Component) null);
+        custom = new RecordingManager();
+        RepaintManager.setCurrentManager(custom);
+    }
+
+    @After
+    public void restoreManager() {
+        RepaintManager.setCurrentManager(original);
+    }
+
+    @Test
+    public void wrapsTheCurrentManagerWhileListening() {
+        final RepaintTracker tracker = RepaintTracker.getInstance();
+        final JPanel root = new JPanel();
+        final RepaintListener listener = new RecordingListener();
+
+        tracker.addRepaintListener(root, listener);
+        assertSame(tracker, RepaintManager.currentManager((Component) null));
+
+        tracker.removeRepaintListener(root, listener);
+        assertSame(custom, RepaintManager.currentManager((Component) null));
+    }
+
+    @Test
+    public void staysInstalledUntilTheLastListenerIsRemoved() {
+        final RepaintTracker tracker = RepaintTracker.getInstance();
+        final JPanel first = new JPanel();
+        final JPanel second = new JPanel();
+        final RepaintListener firstListener = new RecordingListener();
+        final RepaintListener secondListener = new RecordingListener();
+
+        tracker.addRepaintListener(first, firstListener);
+        tracker.addRepaintListener(second, secondListener);
+        tracker.removeRepaintListener(first, firstListener);
+        assertSame(tracker, RepaintManager.currentManager((Component) null));
+
+        tracker.removeRepaintListener(second, secondListener);
+        assertSame(custom, RepaintManager.currentManager((Component) null));
+    }
+
+    @Test
+    public void delegatesDirtyRegionsToTheWrappedManager() throws Exception {
+        final RepaintTracker tracker = RepaintTracker.getInstance();
+        final JPanel root = new JPanel();
+        final RecordingListener listener = new RecordingListener();
+
+        tracker.addRepaintListener(root, listener);
+        custom.regions.clear();
+        try {
+            tracker.addDirtyRegion(root, 1, 2, 3, 4);
+            awaitPaintPass();
+        } finally {
+            tracker.removeRepaintListener(root, listener);
+        }
+
+        assertEquals(1, custom.regions.size());
+        assertEquals(new Rectangle(1, 2, 3, 4), custom.regions.get(0));
+    }
+
+    @Test
+    public void reportsTheUnionOfDirtyRegionsOnTheEventDispatchThread() throws Exception {
+        final RepaintTracker tracker = RepaintTracker.getInstance();
+        final JPanel root = new JPanel();
+        final JPanel child = new JPanel();
+        child.setBounds(10, 20, 30, 30);
+        root.add(child);
+        final RecordingListener listener = new RecordingListener();
+
+        tracker.addRepaintListener(root, listener);
+        try {
+            tracker.addDirtyRegion(root, 0, 0, 5, 5);
+            tracker.addDirtyRegion(child, 0, 0, 5, 5);
+            assertTrue(listener.regions.isEmpty());
+
+            awaitPaintPass();
+        } finally {
+            tracker.removeRepaintListener(root, listener);
+        }
+
+        assertEquals(1, listener.regions.size());
+        assertEquals(new Rectangle(0, 0, 15, 25), listener.regions.get(0));
+        assertTrue(listener.onEventThread);
+    }
+
+    /**
+     * Waits until the paint pass the tracker queued on the event dispatch thread has run.
+     */
+    private static void awaitPaintPass() throws Exception {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+    }
+
+    /**
+     * Stands in for a RepaintManager installed by the application.
+     */
+    private static final class RecordingManager extends RepaintManager {
+        private final List<Rectangle> regions = new ArrayList<Rectangle>();
+
+        @Override
+        public void addDirtyRegion(final JComponent c, final int x, final int y, final int w, final int h) {
+            regions.add(new Rectangle(x, y, w, h));
+        }
+    }
+
+    private static final class RecordingListener implements RepaintListener {
+        private final List<Rectangle> regions = new ArrayList<Rectangle>();
+        private volatile boolean onEventThread;
+
+        @Override
+        public void regionRepainted(final Component root, final int x, final int y, final int width,
+                                    final int height) {
+            regions.add(new Rectangle(x, y, width, height));
+            onEventThread = SwingUtilities.isEventDispatchThread();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class LatencyHistogramTest {
+    @Test
+    public void smallValuesHaveTheirOwnBucket() {
+        for (int value = 0; value < 8; value++) {
+            final int bucket = LatencyHistogram.getBucket(value);
+            assertEquals(value, LatencyHistogram.getBucketStart(bucket));
+            assertEquals(value, LatencyHistogram.getBucketEnd(bucket));
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        assertEquals(0, LatencyHistogram.getBucketStart(0));
+
+        for (int bucket = 0; bucket + 1 < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            assertEquals("bucket " + bucket, LatencyHistogram.getBucketEnd(bucket) + 1,
+                         LatencyHistogram.getBucketStart(bucket + 1));
+        }
+    }
+
+    @Test
+    public void valuesFallInsideTheirBucket() {
+        for (long value = 1; value > 0 && value < 1L << 40; value = value * 3 / 2 + 1) {
+            for (long v = value - 1; v <= value + 1; v++) {
+                final int bucket = LatencyHistogram.getBucket(v);
+                assertTrue(v + " in bucket " + bucket, LatencyHistogram.getBucketStart(bucket) <= v);
+                if (bucket < LatencyHistogram.BUCKET_COUNT - 1)
+                    assertTrue(v + " in bucket " + bucket, v <= LatencyHistogram.getBucketEnd(bucket));
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreWithinAnEighthOfTheirValues() {
+        for (int bucket = 8; bucket < LatencyHistogram.BUCKET_COUNT - 1; bucket++) {
+            final long start = LatencyHistogram.getBucketStart(bucket);
+            final long width = LatencyHistogram.getBucketEnd(bucket) - start + 1;
+            assertTrue("bucket " + bucket, width * 8 <= start);
+        }
+    }
+
+    @Test
+    public void negativeAndHugeValuesAreClamped() {
+        assertEquals(0, LatencyHistogram.getBucket(-5));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getMean());
+        assertEquals(1000000, snapshot.getMax());
+
+        assertWithinBucket(500000, snapshot.getP50());
+        assertWithinBucket(900000, snapshot.getP90());
+        assertWithinBucket(990000, snapshot.getP99());
+        assertEquals(1000000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void percentilesAreCappedAtTheMaximum() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000001);
+
+        assertEquals(1000001, histogram.snapshot().getP50());
+    }
+
+    @Test
+    public void emptyAndReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getP99());
+
+        histogram.record(123);
+        histogram.reset();
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getP50());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPercentilesOutOfRange() {
+        new LatencyHistogram().snapshot().getValueAtPercentile(101);
+    }
+
+    /**
+     * Percentiles are reported as the end of the bucket holding them, at most an eighth above the value.
+     */
+    private static void assertWithinBucket(final long expected, final long actual) {
+        assertTrue(expected + " <= " + actual, expected <= actual);
+        assertTrue(actual + " <= " + expected + " + 1/8", actual <= expected + expected / 8);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests the dirty rectangle bookkeeping and composition of the compositor, composing into a plain buffer
+ * instead of a device.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class CompositorTest {
+    private static final int WIDTH = 40;
+    private static final int HEIGHT = 30;
+
+    /**
+     * Color no composition produces in these tests, to tell untouched pixels apart.
+     */
+    private static final short UNTOUCHED = (short) 0x1234;
+
+    private static final short RED = (short) 0xF800;
+
+    @Test
+    public void firstCompositionCoversTheDisplay() {
+        final Compositor compositor = new Compositor(null, WIDTH, HEIGHT);
+        final ShortBuffer frame = newFrame();
+
+        assertEquals(WIDTH * HEIGHT, compositor.composeInto(frame));
+        assertEquals(WIDTH * HEIGHT, countWritten(frame));
+        assertEquals(0, compositor.composeInto(frame));
+    }
+
+    @Test
+    public void writesOnlyTheDirtyArea() {
+        final Compositor compositor = new Compositor(null, WIDTH, HEIGHT);
+        final Compositor.Layer layer = compositor.addLayer(Compositor.BlendMode.OPAQUE);
+        compositor.composeInto(newFrame());
+
+        final ShortBuffer frame = newFrame();
+        layer.fill(5, 6, 4, 3, RED);
+
+        assertEquals(4 * 3, compositor.composeInto(frame));
+        assertEquals(4 * 3, countWritten(frame));
+        assertEquals(RED, frame.get(6 * WIDTH + 5));
+        assertEquals(RED, frame.get(8 * WIDTH + 8));
+    }
+
+    @Test
+    public void writesEveryDirtyRectangle() {
+        final Compositor compositor = new Compositor(null, WIDTH, HEIGHT);
+        final Compositor.Layer layer = compositor.addLayer(Compositor.BlendMode.OPAQUE);
+        compositor.composeInto(newFrame());
+
+        final ShortBuffer frame = newFrame();
+        layer.fill(0, 0, 2, 2, RED);
+        layer.fill(30, 20, 5, 5, RED);
+
+        assertEquals(2 * 2 + 5 * 5, compositor.composeInto(frame));
+        assertEquals(2 * 2 + 5 * 5, countWritten(frame));
+    }
+
+    @Test
+    public void movingALayerWritesItsOldAndNewBounds() {
+        final Compositor compositor = new Compositor(null, WIDTH, HEIGHT);
+        final Compositor.Layer layer = compositor.addLayer(0, 0, 4, 4, Compositor.BlendMode.OPAQUE);
+        layer.fill(0, 0, 4, 4, RED);
+        compositor.composeInto(newFrame());
+
+        final ShortBuffer frame = newFrame();
+        layer.setPosition(10, 10);
+
+        assertEquals(2 * 4 * 4, compositor.composeInto(frame));
+        assertEquals(2 * 4 * 4, countWritten(frame));
+        assertEquals(0, frame.get(0));
+        assertEquals(RED, frame.get(10 * WIDTH + 10));
+    }
+
+    private static ShortBuffer newFrame() {
+        final ShortBuffer frame = ShortBuffer.allocate(WIDTH * HEIGHT);
+        for (int i = 0; i < frame.capacity(); i++)
+            frame.put(i, UNTOUCHED);
+        return frame;
+    }
+
+    private static int countWritten(final ShortBuffer frame) {
+        int written = 0;
+        for (int i = 0; i < frame.capacity(); i++) {
+            if (frame.get(i) != UNTOUCHED)
+                written++;
+        }
+        return written;
+    }
+
+    @Test
+    public void keepsDisjointRectanglesApart() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(20, 0, 10, 10));
+
+        assertEquals(2, dirty.size());
+    }
+
+    @Test
+    public void touchingRectanglesAreNotMerged() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(10, 0, 10, 10));
+
+        assertEquals(2, dirty.size());
+    }
+
+    @Test
+    public void mergesOverlappingRectangles() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(5, 5, 10, 10));
+
+        assertEquals(1, dirty.size());
+        assertEquals(new Rectangle(0, 0, 15, 15), dirty.get(0));
+    }
+
+    @Test
+    public void mergesTransitively() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(30, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(100, 100, 5, 5));
+
+        // Bridges the first two, their bounding box does not reach the third
+        Compositor.addDirtyRect(dirty, new Rectangle(5, 2, 30, 2));
+
+        assertEquals(2, dirty.size());
+        assertEquals(new Rectangle(100, 100, 5, 5), dirty.get(0));
+        assertEquals(new Rectangle(0, 0, 40, 10), dirty.get(1));
+    }
+
+    @Test
+    public void mergesWhatTheBoundingBoxNowOverlaps() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 0, 10, 10));
+        Compositor.addDirtyRect(dirty, new Rectangle(15, 15, 10, 10));
+
+        // Overlaps only the first, but the merged box covers the second too
+        Compositor.addDirtyRect(dirty, new Rectangle(5, 5, 12, 12));
+
+        assertEquals(1, dirty.size());
+        assertEquals(new Rectangle(0, 0, 25, 25), dirty.get(0));
+    }
+
+    @Test
+    public void collapsesToTheBoundingBoxWhenThereAreTooMany() {
+        final List<Rectangle> dirty = new ArrayList<Rectangle>();
+        for (int i = 0; i < Compositor.MAX_DIRTY_RECTS; i++)
+            Compositor.addDirtyRect(dirty, new Rectangle(i * 20, 0, 10, 10));
+
+        assertEquals(Compositor.MAX_DIRTY_RECTS, dirty.size());
+
+        Compositor.addDirtyRect(dirty, new Rectangle(0, 50, 10, 10));
+
+        assertEquals(1, dirty.size());
+        assertEquals(new Rectangle(0, 0, (Compositor.MAX_DIRTY_RECTS - 1) * 20 + 10, 60), dirty.get(0));
+        assertFalse(dirty.get(0).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests painting components into surfaces on the event dispatch thread.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class PaintSurfacesTest {
+    private static final int COMPONENT_WIDTH = 8;
+    private static final int COMPONENT_HEIGHT = 4;
+
+    @Test
+    public void paintsOnTheEventDispatchThread() {
+        final RenderMetrics metrics = new RenderMetrics(null);
+        final PaintSurfaces surfaces = new PaintSurfaces(metrics);
+        final FilledComponent component = new FilledComponent(Color.RED);
+
+        final BufferedImage surface = surfaces.paint(component, BufferedImage.TYPE_INT_RGB);
+
+        assertTrue(component.paintedOnEventThread.get());
+        assertEquals(0xFF0000, surface.getRGB(COMPONENT_WIDTH - 1, COMPONENT_HEIGHT - 1) & 0xFFFFFF);
+        assertEquals(1, metrics.getPaint().getCount());
+    }
+
+    @Test
+    public void neverRepaintsASurfaceBeforeItIsReleased() {
+        final PaintSurfaces surfaces = new PaintSurfaces(new RenderMetrics(null));
+        final FilledComponent component = new FilledComponent(Color.RED);
+
+        final BufferedImage first = surfaces.paint(component, BufferedImage.TYPE_USHORT_565_RGB);
+        final BufferedImage second = surfaces.paint(component, BufferedImage.TYPE_USHORT_565_RGB);
+        assertNotSame(first, second);
+
+        surfaces.release(first);
+        assertSame(first, surfaces.paint(component, BufferedImage.TYPE_USHORT_565_RGB));
+    }
+
+    @Test
+    public void clearsReusedSurfaces() {
+        final PaintSurfaces surfaces = new PaintSurfaces(new RenderMetrics(null));
+
+        surfaces.release(surfaces.paint(new FilledComponent(Color.RED), BufferedImage.TYPE_INT_RGB));
+        final BufferedImage surface = surfaces.paint(new FilledComponent(null), BufferedImage.TYPE_INT_RGB);
+
+        assertEquals(0, surface.getRGB(0, 0) & 0xFFFFFF);
+    }
+
+    @Test
+    public void keepsSurfacesOfOtherTypesApart() {
+        final PaintSurfaces surfaces = new PaintSurfaces(new RenderMetrics(null));
+        final FilledComponent component = new FilledComponent(Color.RED);
+
+        final BufferedImage rgb = surfaces.paint(component, BufferedImage.TYPE_INT_RGB);
+        surfaces.release(rgb);
+
+        final BufferedImage rgb565 = surfaces.paint(component, BufferedImage.TYPE_USHORT_565_RGB);
+        assertNotSame(rgb, rgb565);
+        assertEquals(BufferedImage.TYPE_USHORT_565_RGB, rgb565.getType());
+    }
+
+    /**
+     * Component filling itself with a color, or painting nothing if the color is null.
+     */
+    private static final class FilledComponent extends JComponent {
+        private final Color color;
+        private final AtomicBoolean paintedOnEventThread;
+
+        private FilledComponent(final Color color) {
+            this.color = color;
+            paintedOnEventThread = new AtomicBoolean();
+            setSize(COMPONENT_WIDTH, COMPONENT_HEIGHT);
+        }
+
+        @Override
+        protected void paintComponent(final Graphics graphics) {
+            paintedOnEventThread.set(SwingUtilities.isEventDispatchThread());
+            if (color == null)
+                return;
+
+            graphics.setColor(color);
+            graphics.fillRect(0, 0, getWidth(), getHeight());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import org.junit.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests staging the dirty regions of a component for the render thread.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RegionSurfaceTest {
+    private static final int COMPONENT_WIDTH = 16;
+    private static final int COMPONENT_HEIGHT = 8;
+
+    @Test
+    public void firstPaintStagesTheWholeComponent() {
+        final ColorComponent component = new ColorComponent();
+        final RegionSurface surface = new RegionSurface(component, new RenderMetrics(null));
+        assertNull(surface.getStaging());
+
+        surface.paint(new Rectangle(2, 2, 2, 2), BufferedImage.TYPE_INT_RGB);
+
+        synchronized (surface) {
+            assertEquals(new Rectangle(0, 0, COMPONENT_WIDTH, COMPONENT_HEIGHT), surface.takeStagedRegion());
+            assertEquals(0xFF0000, surface.getStaging().getRGB(COMPONENT_WIDTH - 1, COMPONENT_HEIGHT - 1) & 0xFFFFFF);
+        }
+    }
+
+    @Test
+    public void stagesOnlyThePaintedRegions() {
+        final ColorComponent component = new ColorComponent();
+        final RegionSurface surface = new RegionSurface(component, new RenderMetrics(null));
+        surface.paint(new Rectangle(0, 0, COMPONENT_WIDTH, COMPONENT_HEIGHT), BufferedImage.TYPE_INT_RGB);
+        synchronized (surface) {
+            surface.takeStagedRegion();
+        }
+
+        component.color = Color.BLUE;
+        surface.paint(new Rectangle(1, 1, 2, 2), BufferedImage.TYPE_INT_RGB);
+        surface.paint(new Rectangle(5, 3, 2, 2), BufferedImage.TYPE_INT_RGB);
+
+        synchronized (surface) {
+            final BufferedImage staging = surface.getStaging();
+            assertEquals(0x0000FF, staging.getRGB(1, 1) & 0xFFFFFF);
+            assertEquals(0x0000FF, staging.getRGB(6, 4) & 0xFFFFFF);
+            assertEquals(0xFF0000, staging.getRGB(10, 1) & 0xFFFFFF);
+
+            assertEquals(new Rectangle(1, 1, 6, 4), surface.takeStagedRegion());
+            assertTrue(surface.takeStagedRegion().isEmpty());
+        }
+    }
+
+    @Test
+    public void restagesTheWholeComponentWhenTheSurfaceTypeChanges() {
+        final RegionSurface surface = new RegionSurface(new ColorComponent(), new RenderMetrics(null));
+        surface.paint(new Rectangle(0, 0, COMPONENT_WIDTH, COMPONENT_HEIGHT), BufferedImage.TYPE_INT_RGB);
+        synchronized (surface) {
+            surface.takeStagedRegion();
+        }
+
+        surface.paint(new Rectangle(1, 1, 2, 2), BufferedImage.TYPE_USHORT_565_RGB);
+
+        synchronized (surface) {
+            assertEquals(BufferedImage.TYPE_USHORT_565_RGB, surface.getStaging().getType());
+            assertEquals(new Rectangle(0, 0, COMPONENT_WIDTH, COMPONENT_HEIGHT), surface.takeStagedRegion());
+        }
+    }
+
+    /**
+     * Component filling itself with a color that can be changed between paints.
+     */
+    private static final class ColorComponent extends JComponent {
+        private Color color = Color.RED;
+
+        private ColorComponent() {
+            setSize(COMPONENT_WIDTH, COMPONENT_HEIGHT);
+        }
+
+        @Override
+        protected void paintComponent(final Graphics graphics) {
+            graphics.setColor(color);
+            graphics.fillRect(0, 0, getWidth(), getHeight());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014 by Adam Hellberg and Brandon Scott.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ * of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Disclaimer: JBlade is in no way affiliated
+ * with Razer and/or any of its employees and/or licensors.
+ * Adam Hellberg does not take responsibility for any harm caused, direct
+ * or indirect, to any Razer peripherals via the use of SharpBlade.
+ *
+ * "Razer" is a trademark of Razer USA Ltd.
+ */
+
+package com.sharparam.jblade.razer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests the frame hash render targets use to skip uploading unchanged frames, which doesn't need a device.
+ *
+ * Created on 2026-10-16.
+ *
+ * @author agent
+ */
+public class RenderTargetTest {
+    private static ByteBuffer randomFrame(final int size, final long seed) {
+        final byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+
+        final ByteBuffer frame = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        frame.put(data);
+        frame.clear();
+        return frame;
+    }
+
+    @Test
+    public void equalFramesHashEqual() {
+        assertEquals(RenderTarget.hash(randomFrame(RazerAPI.TOUCHPAD_IMAGE_DATA_SIZE, 1)),
+                     RenderTarget.hash(randomFrame(RazerAPI.TOUCHPAD_IMAGE_DATA_SIZE, 1)));
+    }
+
+    @Test
+    public void hashesUpToTheLimitRegardlessOfPosition() {
+        final ByteBuffer frame = randomFrame(1000, 2);
+        final long hash = RenderTarget.hash(frame);
+
+        frame.position(100);
+        assertEquals(hash, RenderTarget.hash(frame));
+
+        frame.limit(500);
+        final ByteBuffer prefix = randomFrame(1000, 2);
+        prefix.limit(500);
+        assertNotEquals(hash, RenderTarget.hash(frame));
+        assertEquals(RenderTarget.hash(prefix), RenderTarget.hash(frame));
+    }
+
+    @Test
+    public void everyChangedPixelChangesTheHash() {
+        final ByteBuffer frame = randomFrame(2 * 115 * 115, 3);
+        final long original = RenderTarget.hash(frame);
+
+        for (int i = 0; i < frame.capacity(); i += 2) {
+            final short pixel = frame.getShort(i);
+            frame.putShort(i, (short) (pixel ^ 1));
+            assertNotEquals("pixel " + i / 2, original, RenderTarget.hash(frame));
+            frame.putShort(i, pixel);
+        }
+
+        assertEquals(original, RenderTarget.hash(frame));
+    }
+
+    @Test
+    public void coversTrailingBytes() {
+        // Sizes that aren't a multiple of 8 are hashed byte by byte at the end
+        final ByteBuffer frame = randomFrame(13, 4);
+        final long original = RenderTarget.hash(frame);
+
+        frame.put(12, (byte) (frame.get(12) ^ 0x80));
+        assertNotEquals(original, RenderTarget.hash(frame));
+    }
+
+    @Test
+    public void emptyAndBlackFramesOfDifferentSizesDiffer() {
+        final Set<Long> hashes = new HashSet<Long>();
+        for (int size = 0; size <= 64; size += 2)
+            hashes.add(RenderTarget.hash(ByteBuffer.allocateDirect(size)));
+
+        assertEquals(33, hashes.size());
+    }
+}